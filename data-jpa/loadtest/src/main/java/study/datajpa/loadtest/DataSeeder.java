@@ -0,0 +1,49 @@
+package study.datajpa.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.id.Tsid;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA 를 거치지 않고 JDBC 배치로 팀/회원을 넣는다. 회원 id 는 1..members 로 채우고 시퀀스를 그 뒤로 옮긴다.
+ */
+class DataSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    long[] seed(int members, int teams) {
+        long[] teamIds = new long[teams];
+        List<Object[]> teamRows = new ArrayList<>(teams);
+        for (int i = 0; i < teams; i++) {
+            teamIds[i] = Tsid.next();
+            teamRows.add(new Object[]{teamIds[i], "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", teamRows);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] memberIds = new long[members];
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < members; i++) {
+            memberIds[i] = i + 1;
+            Long teamId = teams == 0 ? null : teamIds[i % teams];
+            rows.add(new Object[]{memberIds[i], "member" + i, i % 100, teamId, now, now});
+            if (rows.size() == BATCH_SIZE || i == members - 1) {
+                jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id, created_date, last_modified_date)"
+                        + " values (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("alter sequence member_seq restart with " + (members + 1));
+        return memberIds;
+    }
+}
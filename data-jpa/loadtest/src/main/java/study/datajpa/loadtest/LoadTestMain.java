@@ -0,0 +1,96 @@
+package study.datajpa.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.DataJpaApplication;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 앱을 인메모리 H2 로 띄우고 데이터를 넣은 뒤 엔드포인트별로 일정 도착률 부하를 걸어
+ * p50/p99/p99.9, 처리량을 출력한다. 엔드포인트별 HdrHistogram 분포(.hgrm)는 reportDir 에 남겨서 변경 전후를 비교한다.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "logging.level.org.hibernate.SQL=info",
+                        "datajpa.slow-query.enabled=false",
+                        "datajpa.search.index-dir=build/loadtest-index",
+                        "datajpa.search.rebuild-on-startup=false")
+                .run();
+        try {
+            long seedStart = System.nanoTime();
+            long[] memberIds = new DataSeeder(context.getBean(JdbcTemplate.class)).seed(options.members(), options.teams());
+            System.out.printf("seeded %d members, %d teams in %d ms%n", options.members(), options.teams(),
+                    (System.nanoTime() - seedStart) / 1_000_000);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            run(options, "http://localhost:" + port, memberIds);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(LoadTestOptions options, String base, long[] memberIds) throws Exception {
+        int pages = Math.max(1, memberIds.length / 20);
+        List<Endpoint> endpoints = List.of(
+                new Endpoint("members", () -> URI.create(base + "/members?size=20&page=" + random(pages))),
+                new Endpoint("members-id", () -> URI.create(base + "/members/" + memberIds[random(memberIds.length)])),
+                new Endpoint("members2-id", () -> URI.create(base + "/members2/" + memberIds[random(memberIds.length)])));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(client);
+
+        //JIT, 커넥션 풀 워밍업 (결과는 버린다)
+        for (Endpoint endpoint : endpoints) {
+            generator.run(endpoint.name(), endpoint.uris(), options.ratePerEndpoint(), options.warmup());
+        }
+
+        List<OpenModelLoadGenerator.Result> results = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            results.add(generator.run(endpoint.name(), endpoint.uris(), options.ratePerEndpoint(), options.duration()));
+        }
+        OpenModelLoadGenerator.print(results);
+        writeDistributions(options.reportDir(), results);
+    }
+
+    private static void writeDistributions(Path dir, List<OpenModelLoadGenerator.Result> results) throws Exception {
+        Files.createDirectories(dir);
+        for (OpenModelLoadGenerator.Result result : results) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(result.name() + ".hgrm")))) {
+                //기록 단위가 us 이므로 1000 으로 나눠 ms 로 출력
+                result.histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("latency distributions written to " + dir.toAbsolutePath());
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private record Endpoint(String name, Supplier<URI> uris) {
+    }
+}
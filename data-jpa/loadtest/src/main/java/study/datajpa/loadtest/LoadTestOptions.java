@@ -0,0 +1,41 @@
+package study.datajpa.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * --name=value 형식의 실행 인자.
+ */
+record LoadTestOptions(int members, int teams, int ratePerEndpoint, Duration duration, Duration warmup, Path reportDir) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("expected --name=value but was " + arg);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("members", "100000")),
+                Integer.parseInt(values.getOrDefault("teams", "100")),
+                Integer.parseInt(values.getOrDefault("rate", "500")),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Path.of(values.getOrDefault("report-dir", "build/loadtest")));
+    }
+
+    //30s, 500ms 같은 짧은 표기
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
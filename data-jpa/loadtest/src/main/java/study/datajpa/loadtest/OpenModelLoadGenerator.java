@@ -0,0 +1,94 @@
+package study.datajpa.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * open model 부하: 응답을 기다리지 않고 정해진 도착률(rate/s)로 요청을 보낸다.
+ * 지연은 실제 전송 시각이 아니라 "보냈어야 하는 시각"부터 잰다(coordinated omission 보정).
+ * 서버나 발생기가 밀려서 늦게 보낸 요청도 밀린 시간만큼 지연에 포함된다.
+ */
+class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient client;
+
+    OpenModelLoadGenerator(HttpClient client) {
+        this.client = client;
+    }
+
+    Result run(String name, Supplier<URI> uris, int ratePerSecond, Duration duration) {
+        Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        AtomicLong errors = new AtomicLong();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long total = duration.toNanos() / intervalNanos;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[(int) total];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            HttpRequest request = HttpRequest.newBuilder(uris.get())
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        if (e != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                        histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new Result(name, ratePerSecond, total, errors.get(), elapsedNanos, histogram);
+    }
+
+    record Result(String name, int targetRate, long requests, long errors, long elapsedNanos, Histogram histogram) {
+
+        double throughput() {
+            return (requests - errors) * 1e9 / elapsedNanos;
+        }
+
+        static String header() {
+            return String.format("%-16s %8s %10s %8s %10s %10s %10s %10s",
+                    "endpoint", "target/s", "actual/s", "errors", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        }
+
+        String line() {
+            return String.format("%-16s %8d %10.1f %8d %10.3f %10.3f %10.3f %10.3f",
+                    name, targetRate, throughput(), errors,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static void print(List<Result> results) {
+        System.out.println(Result.header());
+        results.forEach(result -> System.out.println(result.line()));
+    }
+}
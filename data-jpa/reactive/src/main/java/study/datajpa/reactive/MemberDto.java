@@ -0,0 +1,18 @@
+package study.datajpa.reactive;
+
+import lombok.Data;
+
+//data-jpa 의 study.datajpa.dto.MemberDto 와 같은 모양
+@Data
+public class MemberDto {
+
+    private Long id;
+    private String username;
+    private String teamName;
+
+    public MemberDto(Long id, String username, String teamName) {
+        this.id = id;
+        this.username = username;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveMemberApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveMemberApplication.class, args);
+	}
+}
@@ -0,0 +1,43 @@
+package study.datajpa.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+public class ReactiveMemberController {
+
+    private static final int MAX_PAGE_SIZE = 2000;
+
+    private final ReactiveMemberRepository reactiveMemberRepository;
+
+    //application/x-ndjson 으로 요청하면 클라이언트가 읽는 속도에 맞춰 DB에서 가져온다(backpressure)
+    @GetMapping(value = "/members", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<MemberDto> list(@RequestParam(value = "page", defaultValue = "0") int page,
+                                @RequestParam(value = "size", defaultValue = "10") int size) {
+        return reactiveMemberRepository.findAll(page, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    @GetMapping(value = "/members/by-username/{username}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<MemberDto> findByUsername(@PathVariable("username") String username) {
+        return reactiveMemberRepository.findByUsername(username);
+    }
+
+    @GetMapping(value = "/members/dto", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<MemberDto> findMemberDto() {
+        return reactiveMemberRepository.findMemberDto();
+    }
+
+    //벤치마크용. 자체 DB 를 data-jpa 쪽 CSV import 와 같은 모양의 회원 count 명으로 다시 채운다
+    @PostMapping("/members/seed")
+    public Mono<Long> seed(@RequestParam("count") int count) {
+        return reactiveMemberRepository.seed(count);
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.reactive;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * data-jpa 와 같은 모양의 member, team 테이블을 R2DBC로 읽는다. 엔티티 없이 바로 MemberDto로 매핑.
+ * DB 는 data-jpa 와 따로 쓴다 (application.yml 참고).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveMemberRepository {
+
+    private static final String SELECT_MEMBER_DTO =
+            "select m.member_id, m.username, t.name as team_name from member m ";
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<MemberDto> findAll(int page, int size) {
+        return databaseClient.sql(SELECT_MEMBER_DTO + "left join team t on m.team_id = t.team_id " +
+                        "order by m.member_id limit :size offset :offset")
+                .bind("size", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveMemberRepository::toDto)
+                .all();
+    }
+
+    public Flux<MemberDto> findByUsername(String username) {
+        return databaseClient.sql(SELECT_MEMBER_DTO + "left join team t on m.team_id = t.team_id " +
+                        "where m.username = :username")
+                .bind("username", username)
+                .map(ReactiveMemberRepository::toDto)
+                .all();
+    }
+
+    //MemberRepository.findMemberDto 와 같은 inner join
+    public Flux<MemberDto> findMemberDto() {
+        return databaseClient.sql(SELECT_MEMBER_DTO + "join team t on m.team_id = t.team_id")
+                .map(ReactiveMemberRepository::toDto)
+                .all();
+    }
+
+    //벤치마크 CSV(bench{i}, age i % 100, benchTeam{i % 100}) 와 같은 데이터로 다시 채운다
+    public Mono<Long> seed(int count) {
+        return databaseClient.sql("delete from member").then()
+                .then(databaseClient.sql("delete from team").then())
+                .then(databaseClient.sql("insert into team (team_id, name) " +
+                        "select x, 'benchTeam' || (x - 1) from system_range(1, 100)").then())
+                .then(databaseClient.sql("insert into member (member_id, age, username, team_id) " +
+                                "select x, mod(x - 1, 100), 'bench' || (x - 1), mod(x - 1, 100) + 1 from system_range(1, :count)")
+                        .bind("count", count)
+                        .fetch().rowsUpdated());
+    }
+
+    private static MemberDto toDto(Readable row) {
+        return new MemberDto(row.get("member_id", Long.class), row.get("username", String.class),
+                row.get("team_name", String.class));
+    }
+}
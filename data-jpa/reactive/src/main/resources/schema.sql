@@ -0,0 +1,19 @@
+-- reactive 전용 인메모리 DB. data-jpa 의 Team(TSID), Member(member_seq) 매핑과 같은 컬럼만 둔다 (id 는 그대로 받아서 저장)
+create table if not exists team (
+    team_id bigint not null,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table if not exists member (
+    age integer not null,
+    created_date timestamp(6),
+    last_modified_date timestamp(6),
+    member_id bigint not null,
+    team_id bigint,
+    create_by varchar(255),
+    last_modified_by varchar(255),
+    username varchar(255),
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team
+);
@@ -0,0 +1,61 @@
+package study.datajpa.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.*;
+
+//앱 설정 그대로 자체 인메모리 DB(schema.sql)를 쓴다. data-jpa 의 DB 와는 공유하지 않는다
+@SpringBootTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-test;DB_CLOSE_DELAY=-1")
+@AutoConfigureWebTestClient
+class ReactiveMemberControllerTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+    @Autowired
+    DatabaseClient databaseClient;
+    @Autowired
+    ReactiveMemberRepository reactiveMemberRepository;
+
+    @Test
+    public void findByUsername(){
+        databaseClient.sql("insert into team (team_id, name) values (1000, 'teamA')").then()
+                .then(databaseClient.sql("insert into member (member_id, age, username, team_id) values (1000001, 10, 'reactiveA', 1000)").then())
+                .block();
+
+        webTestClient.get().uri("/members/by-username/reactiveA")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MemberDto.class)
+                .value(list -> {
+                    assertThat(list).hasSize(1);
+                    assertThat(list.get(0).getTeamName()).isEqualTo("teamA");
+                });
+
+        StepVerifier.create(reactiveMemberRepository.findMemberDto().filter(dto -> dto.getUsername().equals("reactiveA")))
+                .expectNextMatches(dto -> dto.getTeamName().equals("teamA"))
+                .verifyComplete();
+    }
+
+    @Test
+    public void seed(){
+        webTestClient.post().uri("/members/seed?count=250")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Long.class).isEqualTo(250L);
+
+        webTestClient.get().uri("/members/by-username/bench101")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MemberDto.class)
+                .value(list -> assertThat(list).extracting(MemberDto::getTeamName).containsExactly("benchTeam1"));
+    }
+}
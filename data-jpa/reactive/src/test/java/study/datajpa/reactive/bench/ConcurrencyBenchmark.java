@@ -0,0 +1,156 @@
+package study.datajpa.reactive.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 같은 커넥션 풀 크기에서 JDBC(data-jpa, 8080) 와 R2DBC(reactive, 8081) 의 /members 목록 조회를
+ * 동시 요청 수(concurrency)를 고정해서 비교한다. 두 앱은 DB 를 공유하지 않는다 (r2dbc-h2 는 data-jpa 의 H2 1.4.200 서버에 붙을 수 없다).
+ * members 가 0 보다 크면 data-jpa 는 CSV import, reactive 는 /members/seed 로 같은 모양의 회원을 그만큼 넣고,
+ * 측정 전에 두 쪽 모두 꽉 찬 첫 페이지를 돌려주는지 확인한다. id 는 DB 마다 따로 발급되므로 내용까지 같지는 않다.
+ * JDBC 쪽은 Page 응답, R2DBC 쪽은 ndjson 스트림이므로 바이트 수가 아닌 처리량/지연만 비교한다.
+ */
+public class ConcurrencyBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String jdbcBase = args[0];
+        String reactiveBase = args[1];
+        int concurrency = Integer.parseInt(args[2]);
+        int requests = Integer.parseInt(args[3]);
+        int members = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        if (members > 0) {
+            seed(client, jdbcBase, members);
+            seedReactive(client, reactiveBase, members);
+        }
+        verifyPages(client, jdbcBase, reactiveBase);
+
+        //JIT, 풀 워밍업
+        run(client, jdbcBase + "/members?page=0&size=50", "application/json", concurrency, Math.min(requests, 1000));
+        run(client, reactiveBase + "/members?page=0&size=50", "application/x-ndjson", concurrency, Math.min(requests, 1000));
+
+        print("jdbc", run(client, jdbcBase + "/members?page=0&size=50", "application/json", concurrency, requests));
+        print("r2dbc", run(client, reactiveBase + "/members?page=0&size=50", "application/x-ndjson", concurrency, requests));
+    }
+
+    //username,age,team CSV 를 multipart 로 올린다 (회원 id, 팀 id 는 data-jpa 가 member_seq, TSID 로 발급)
+    private static void seed(HttpClient client, String jdbcBase, int members) throws Exception {
+        StringBuilder csv = new StringBuilder("username,age,team\n");
+        for (int i = 0; i < members; i++) {
+            csv.append("bench").append(i).append(',').append(i % 100).append(",benchTeam").append(i % 100).append('\n');
+        }
+        String boundary = "----bench" + System.nanoTime();
+        String body = "--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"members.csv\"\r\n" +
+                "Content-Type: text/csv\r\n\r\n" +
+                csv + "\r\n--" + boundary + "--\r\n";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(jdbcBase + "/members/import"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .timeout(Duration.ofMinutes(10))
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("seed failed: " + response.statusCode() + " " + response.body());
+        }
+        System.out.println("seeded: " + response.body());
+    }
+
+    private static void seedReactive(HttpClient client, String reactiveBase, int members) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(reactiveBase + "/members/seed?count=" + members))
+                .timeout(Duration.ofMinutes(10))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("reactive seed failed: " + response.statusCode() + " " + response.body());
+        }
+        System.out.println("seeded reactive: " + response.body());
+    }
+
+    //한쪽이 빈 DB 면 빈 페이지를 돌려주는 비용만 재게 되어 비교할 수 없다
+    private static void verifyPages(HttpClient client, String jdbcBase, String reactiveBase) throws Exception {
+        List<String> jdbcIds = ids(client, jdbcBase + "/members?page=0&size=50", "application/json");
+        List<String> reactiveIds = ids(client, reactiveBase + "/members?page=0&size=50", "application/json");
+        if (jdbcIds.size() != 50 || reactiveIds.size() != 50) {
+            throw new IllegalStateException("both apps need at least 50 members (seed with the 5th argument): "
+                    + "jdbc=" + jdbcIds.size() + ", r2dbc=" + reactiveIds.size());
+        }
+    }
+
+    private static List<String> ids(HttpClient client, String url, String accept) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Accept", accept).build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(body);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    private static Result run(HttpClient client, String url, String accept, int concurrency, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", accept)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(requests, errors.get(), elapsed, latencies);
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-6s requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                name, result.requests, result.errors,
+                result.requests / (result.elapsedNanos / 1e9),
+                percentile(result.latencies, 0.50), percentile(result.latencies, 0.99),
+                result.latencies[result.latencies.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(int requests, int errors, long elapsedNanos, long[] latencies) {
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 요청 한 건(20건 페이지 직렬화)당 할당 바이트 before(PageImpl&lt;MemberDto&gt;) / after(PageResponse) 비교.
+ * JIT/GC 상태에 따라 값이 달라지므로 판정(assert) 없이 라운드별 값과 최소값만 출력한다.
+ * <pre>
+ * ./gradlew benchmark --tests '*PageResponseAllocationBenchmark'
+ * </pre>
+ */
+class PageResponseAllocationBenchmark {
+
+    static final int ROUNDS = 5;
+    static final int ITERATIONS = 20_000;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void allocatedBytesPerRequest() {
+        Page<Member> page = memberPage(20);
+
+        Runnable before = () -> write(page.map(MemberDto::new));
+        Runnable after = () -> write(PageResponse.of(page, MemberDto::writeJson));
+
+        //JIT 워밍업 (escape analysis 가 적용된 뒤의 값을 본다)
+        allocatedBytesPerCall(before, ITERATIONS);
+        allocatedBytesPerCall(after, ITERATIONS);
+
+        long minBefore = Long.MAX_VALUE;
+        long minAfter = Long.MAX_VALUE;
+        for (int round = 1; round <= ROUNDS; round++) {
+            long beforeBytes = allocatedBytesPerCall(before, ITERATIONS);
+            long afterBytes = allocatedBytesPerCall(after, ITERATIONS);
+            minBefore = Math.min(minBefore, beforeBytes);
+            minAfter = Math.min(minAfter, afterBytes);
+            System.out.printf("round %d: allocated bytes/request before = %,d, after = %,d%n", round, beforeBytes, afterBytes);
+        }
+        System.out.printf("min: allocated bytes/request before = %,d, after = %,d%n", minBefore, minAfter);
+    }
+
+    private long allocatedBytesPerCall(Runnable action, int iterations) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - start) / iterations;
+    }
+
+    private void write(Object value) {
+        try {
+            objectMapper.writeValue(OutputStream.nullOutputStream(), value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Page<Member> memberPage(int size) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            members.add(new Member("member" + i, i));
+        }
+        return new PageImpl<>(members, PageRequest.of(0, size, Sort.by("username")), size * 10L);
+    }
+}
@@ -0,0 +1,178 @@
+package study.datajpa.id;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * id 전략별 insert 처리량과 PK 인덱스 크기 비교 (H2 파일 DB, 앱과 같은 Hibernate 배치 설정).
+ * identity: insert 마다 generated key 왕복 / sequence: {@link PooledSequenceGenerator} 블록 + 배치
+ * / tsid: {@link TimeOrderedId} 메모리 발급 + 배치 / random: UUID 문자열 + 배치
+ * <pre>
+ * ./gradlew benchmark --tests '*IdGenerationBenchmark'
+ * </pre>
+ */
+class IdGenerationBenchmark {
+
+    static final int ROWS = 20_000;
+    static final int BATCH_SIZE = 100;
+
+    @Test
+    public void insertThroughputAndIndexSize() throws Exception {
+        Path dir = Path.of("build", "id-bench");
+        deleteRecursively(dir);
+
+        report("identity", dir, IdentityRow.class, IdentityRow::new);
+        report("sequence", dir, SequenceRow.class, SequenceRow::new);
+        report("tsid", dir, TsidRow.class, TsidRow::new);
+        report("random", dir, RandomRow.class, RandomRow::new);
+    }
+
+    private void report(String strategy, Path dir, Class<?> entity, IntFunction<Object> factory) {
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(entity)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:file:" + dir.toAbsolutePath().resolve(strategy))
+                .setProperty(AvailableSettings.USER, "sa")
+                .setProperty(AvailableSettings.PASS, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true");
+
+        try (SessionFactory sessionFactory = configuration.buildSessionFactory()) {
+            long start = System.nanoTime();
+            sessionFactory.inTransaction(session -> {
+                for (int i = 0; i < ROWS; i++) {
+                    session.persist(factory.apply(i));
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+            });
+            long elapsed = System.nanoTime() - start;
+
+            sessionFactory.inSession(session -> {
+                session.doWork(connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("checkpoint sync");
+                    }
+                });
+                long count = count(session, "select count(*) from bench");
+                assertThat(count).isEqualTo(ROWS);
+                System.out.printf("%-8s rows/s = %,10d  table+pk bytes = %,d%n",
+                        strategy, ROWS * 1_000_000_000L / elapsed, count(session, "call disk_space_used('BENCH')"));
+            });
+        }
+    }
+
+    private static long count(Session session, String sql) {
+        return session.createNativeQuery(sql, Long.class).getSingleResult();
+    }
+
+    private static void deleteRecursively(Path dir) throws Exception {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Entity(name = "IdentityRow")
+    @Table(name = "bench")
+    static class IdentityRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        String username;
+
+        IdentityRow() {
+        }
+
+        IdentityRow(int i) {
+            this.username = "member" + i;
+        }
+    }
+
+    //Member 와 같은 매핑
+    @Entity(name = "SequenceRow")
+    @Table(name = "bench")
+    static class SequenceRow {
+
+        @Id
+        @GeneratedValue(generator = "bench_seq")
+        @GenericGenerator(name = "bench_seq", type = PooledSequenceGenerator.class, parameters = {
+                @Parameter(name = "sequence_name", value = "bench_seq"),
+                @Parameter(name = "increment_size", value = "50")})
+        Long id;
+
+        String username;
+
+        SequenceRow() {
+        }
+
+        SequenceRow(int i) {
+            this.username = "member" + i;
+        }
+    }
+
+    //Team 과 같은 매핑
+    @Entity(name = "TsidRow")
+    @Table(name = "bench")
+    static class TsidRow {
+
+        @Id
+        @TimeOrderedId
+        Long id;
+
+        String username;
+
+        TsidRow() {
+        }
+
+        TsidRow(int i) {
+            this.username = "member" + i;
+        }
+    }
+
+    @Entity(name = "RandomRow")
+    @Table(name = "bench")
+    static class RandomRow {
+
+        @Id
+        String id;
+
+        String username;
+
+        RandomRow() {
+        }
+
+        RandomRow(int i) {
+            this.id = UUID.randomUUID().toString();
+            this.username = "member" + i;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.archive;
+
+//어떤 감사 컬럼 기준으로 오래된 회원을 고를지
+public enum ArchivePolicy {
+    CREATED_DATE("created_date"),
+    LAST_MODIFIED_DATE("last_modified_date");
+
+    private final String column;
+
+    ArchivePolicy(String column) {
+        this.column = column;
+    }
+
+    public String column() {
+        return column;
+    }
+}
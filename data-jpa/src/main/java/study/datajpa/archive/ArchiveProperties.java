@@ -0,0 +1,29 @@
+package study.datajpa.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.archive")
+public class ArchiveProperties {
+
+    //스케줄 실행 여부 (archive() 직접 호출은 항상 가능)
+    private boolean enabled = false;
+
+    private ArchivePolicy policy = ArchivePolicy.LAST_MODIFIED_DATE;
+
+    //policy 컬럼이 now - olderThan 보다 이전이면 보관
+    private Duration olderThan = Duration.ofDays(365);
+
+    //배치 하나 = 트랜잭션 하나
+    private int batchSize = 500;
+
+    //배치 사이에 쉬는 시간 (운영 트래픽과 락/IO 경합 완화)
+    private Duration pause = Duration.ofMillis(200);
+
+    private int maxBatchesPerRun = 100;
+}
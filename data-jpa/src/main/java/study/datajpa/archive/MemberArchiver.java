@@ -0,0 +1,108 @@
+package study.datajpa.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.readmodel.MemberReadModel;
+import study.datajpa.search.MemberSearchIndex;
+import study.datajpa.stats.MemberAggregates;
+import study.datajpa.support.AfterCommit;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 오래된 회원을 member 에서 member_archive 로 옮긴다 (insert ... select 후 delete, 배치마다 한 트랜잭션).
+ * 배치 사이에는 pause 만큼 쉬고, 한 번 실행에 maxBatchesPerRun 개까지만 처리한다.
+ * 집계 테이블과 검색 색인은 hot 테이블(member) 기준이므로 옮긴 회원만큼 빼준다.
+ */
+@Slf4j
+@Component
+@Workload(WorkloadClass.BATCH)
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class MemberArchiver {
+
+    private static final String COLUMNS =
+            "member_id, username, age, team_id, created_date, last_modified_date, create_by, last_modified_by";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberAggregates memberAggregates;
+    private final MemberSearchIndex searchIndex;
+    private final MemberReadModel memberReadModel;
+    private final ArchiveProperties properties;
+
+    public MemberArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          MemberAggregates memberAggregates, MemberSearchIndex searchIndex, MemberReadModel memberReadModel,
+                          ArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memberAggregates = memberAggregates;
+        this.searchIndex = searchIndex;
+        this.memberReadModel = memberReadModel;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.archive.interval:PT1H}",
+            initialDelayString = "${datajpa.archive.interval:PT1H}")
+    public void scheduledArchive() {
+        if (properties.isEnabled()) {
+            archive();
+        }
+    }
+
+    //옮긴 회원 수
+    public long archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getOlderThan());
+        long total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            if (moved < properties.getBatchSize()) {
+                break;
+            }
+            LockSupport.parkNanos(properties.getPause().toNanos());
+        }
+        if (total > 0) {
+            log.info("archived {} members older than {} by {}", total, cutoff, properties.getPolicy());
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select member_id from member where " + properties.getPolicy().column() + " < ? order by member_id limit ?",
+                Long.class, Timestamp.valueOf(cutoff), properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+        jdbcTemplate.update("insert into member_archive (" + COLUMNS + ", archived_date) " +
+                "select " + COLUMNS + ", ? from member where member_id in (" + in + ")", args.toArray());
+
+        memberAggregates.removeMembers(ids);
+        int deleted = jdbcTemplate.update("delete from member where member_id in (" + in + ")", ids.toArray());
+
+        AfterCommit.run(() -> {
+            ids.forEach(searchIndex::delete);
+            memberReadModel.membersRemoved(ids);
+        });
+        return deleted;
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.columnar;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.columnar-export")
+public class ColumnarExportProperties {
+
+    //exportToFile 이 .arrow 파일을 쓰는 곳
+    private String dir = "build/member-export";
+
+    //record batch 하나의 행 수 (컬럼 버퍼는 batch 마다 재사용)
+    private int batchSize = 65_536;
+
+    //JDBC 커서가 서버에서 한 번에 가져오는 행 수
+    private int fetchSize = 10_000;
+}
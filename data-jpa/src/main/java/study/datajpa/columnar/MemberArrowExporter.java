@@ -0,0 +1,223 @@
+package study.datajpa.columnar;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ArrowWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * member left join team 을 Apache Arrow IPC 로 내보낸다 (분석용 전체 덤프).
+ * JDBC 커서를 그대로 컬럼 벡터(long member_id/team_id, int age, username)에 채우고 엔티티는 만들지 않는다.
+ * team_name 은 팀 이름 사전(dictionary id 0)의 인덱스로 인코딩한다.
+ * <p>
+ * 스트림 형식 사전은 앞에서 한 번만 쓰므로 사전은 export 시작 시점의 팀 이름으로 만든다.
+ * 그 뒤에 생긴 팀의 회원은 team_id 만 있고 team_name 은 null 이다.
+ * Arrow 메모리 접근에 --add-opens=java.base/java.nio=ALL-UNNAMED 가 필요하다 (build.gradle 참고).
+ */
+@Slf4j
+@Service
+@Workload(WorkloadClass.REPORTING)
+@EnableConfigurationProperties(ColumnarExportProperties.class)
+public class MemberArrowExporter {
+
+    public static final String STREAM_MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final DictionaryEncoding TEAM_NAME_ENCODING = new DictionaryEncoding(0, true, new ArrowType.Int(32, true));
+
+    static final Schema SCHEMA = new Schema(List.of(
+            new Field("member_id", FieldType.notNullable(new ArrowType.Int(64, true)), null),
+            new Field("username", FieldType.nullable(ArrowType.Utf8.INSTANCE), null),
+            new Field("age", FieldType.notNullable(new ArrowType.Int(32, true)), null),
+            new Field("team_id", FieldType.nullable(new ArrowType.Int(64, true)), null),
+            new Field("team_name", new FieldType(true, new ArrowType.Int(32, true), TEAM_NAME_ENCODING), null)));
+
+    private static final String MEMBER_ROWS =
+            "select m.member_id, m.username, m.age, m.team_id, t.name " +
+            "from member m left join team t on t.team_id = m.team_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ColumnarExportProperties properties;
+
+    public MemberArrowExporter(JdbcTemplate jdbcTemplate, ColumnarExportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    //Arrow 스트림 형식, 내보낸 행 수를 반환
+    @Transactional(readOnly = true)
+    public long export(OutputStream out) {
+        return write((root, dictionaries) -> new ArrowStreamWriter(root, dictionaries, Channels.newChannel(out)));
+    }
+
+    //Arrow 파일 형식(.arrow, Feather v2) - pyarrow.feather.read_table / pandas.read_feather 로 바로 읽힌다
+    @Transactional(readOnly = true)
+    public Path exportToFile() {
+        try {
+            Path dir = Files.createDirectories(Path.of(properties.getDir()));
+            Path file = dir.resolve("members-" + System.currentTimeMillis() + ".arrow");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long rows = write((root, dictionaries) -> new ArrowFileWriter(root, dictionaries, channel));
+                log.info("exported {} members to {}", rows, file);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long write(BiFunction<VectorSchemaRoot, DictionaryProvider, ArrowWriter> writerFactory) {
+        try (BufferAllocator allocator = new RootAllocator();
+             VarCharVector teamNames = new VarCharVector("team_name_dictionary", allocator);
+             VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+            Map<String, Integer> teamNameIndex = loadTeamNames(teamNames);
+            DictionaryProvider.MapDictionaryProvider dictionaries =
+                    new DictionaryProvider.MapDictionaryProvider(new Dictionary(teamNames, TEAM_NAME_ENCODING));
+
+            for (FieldVector vector : root.getFieldVectors()) {
+                vector.setInitialCapacity(properties.getBatchSize());
+            }
+            root.allocateNew();
+
+            try (ArrowWriter writer = writerFactory.apply(root, dictionaries)) {
+                writer.start();
+                BatchWriter batchWriter = new BatchWriter(root, writer, teamNameIndex);
+                jdbcTemplate.query(this::memberCursor, batchWriter);
+                batchWriter.flush();
+                writer.end();
+                return batchWriter.total;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //이름 순 사전 (ordered=true)
+    private Map<String, Integer> loadTeamNames(VarCharVector teamNames) {
+        Map<String, Integer> index = new HashMap<>();
+        teamNames.allocateNew();
+        jdbcTemplate.query("select distinct name from team where name is not null order by name", rs -> {
+            int position = index.size();
+            teamNames.setSafe(position, rs.getString(1).getBytes(StandardCharsets.UTF_8));
+            index.put(rs.getString(1), position);
+        });
+        teamNames.setValueCount(index.size());
+        return index;
+    }
+
+    private PreparedStatement memberCursor(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(MEMBER_ROWS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(properties.getFetchSize());
+        return statement;
+    }
+
+    //커서 행을 컬럼 벡터에 채우고 batchSize 마다 record batch 로 내보낸다
+    private class BatchWriter implements RowCallbackHandler {
+
+        private final VectorSchemaRoot root;
+        private final ArrowWriter writer;
+        private final Map<String, Integer> teamNameIndex;
+        private final BigIntVector memberId;
+        private final VarCharVector username;
+        private final IntVector age;
+        private final BigIntVector teamId;
+        private final IntVector teamName;
+
+        private int row;
+        private long total;
+
+        BatchWriter(VectorSchemaRoot root, ArrowWriter writer, Map<String, Integer> teamNameIndex) {
+            this.root = root;
+            this.writer = writer;
+            this.teamNameIndex = teamNameIndex;
+            this.memberId = (BigIntVector) root.getVector("member_id");
+            this.username = (VarCharVector) root.getVector("username");
+            this.age = (IntVector) root.getVector("age");
+            this.teamId = (BigIntVector) root.getVector("team_id");
+            this.teamName = (IntVector) root.getVector("team_name");
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            memberId.setSafe(row, rs.getLong(1));
+            String name = rs.getString(2);
+            if (name == null) {
+                username.setNull(row);
+            } else {
+                username.setSafe(row, name.getBytes(StandardCharsets.UTF_8));
+            }
+            age.setSafe(row, rs.getInt(3));
+            long team = rs.getLong(4);
+            if (rs.wasNull()) {
+                teamId.setNull(row);
+                teamName.setNull(row);
+            } else {
+                teamId.setSafe(row, team);
+                Integer index = teamNameIndex.get(rs.getString(5));
+                if (index == null) {
+                    teamName.setNull(row);
+                } else {
+                    teamName.setSafe(row, index);
+                }
+            }
+            if (++row == properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (row == 0) {
+                return;
+            }
+            try {
+                root.setRowCount(row);
+                writer.writeBatch();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            total += row;
+            row = 0;
+            for (FieldVector vector : root.getFieldVectors()) {
+                vector.reset();
+            }
+        }
+    }
+}
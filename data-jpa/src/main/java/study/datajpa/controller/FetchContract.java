@@ -0,0 +1,28 @@
+package study.datajpa.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 엔드포인트가 응답을 만들 때 읽는 연관관계 경로와 요청 하나가 실행할 수 있는 statement 수.
+ * open-in-view 를 끈 상태에서는 여기 적힌 경로를 서비스 트랜잭션 안에서 fetch join 등으로 함께 로딩해야 한다.
+ * 경로를 건마다 지연 로딩하면 statement 수가 결과 건수만큼 늘어나므로 {@link #maxStatements()} 로 잡는다
+ * ({@link FetchContractEnforcer}, datajpa.osiv.enforce-fetch-contracts).
+ * value 가 비어있으면 엔티티의 기본 속성만 읽는다는 뜻.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FetchContract {
+
+    //입력 크기에 비례해 statement 가 나가는 엔드포인트(import, reconcile 등)
+    int UNBOUNDED = -1;
+
+    String[] value() default {};
+
+    //요청 스레드에서 실행되는 statement 상한 (배치 실행은 1개)
+    int maxStatements() default 2;
+}
@@ -0,0 +1,67 @@
+package study.datajpa.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.List;
+
+/**
+ * 핸들러의 {@link FetchContract#maxStatements()} 를 요청 스레드의 statement 예산으로 걸고, 넘는 statement 는 실행 전에 막는다.
+ * 인터셉터로 예산을 설정하고 datasource-proxy 리스너로 센다 (둘 다 이 클래스, 상태는 스레드 로컬).
+ */
+public class FetchContractEnforcer implements AsyncHandlerInterceptor, QueryExecutionListener {
+
+    private static final ThreadLocal<Budget> BUDGET = new ThreadLocal<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            FetchContract contract = handlerMethod.getMethodAnnotation(FetchContract.class);
+            if (contract != null && contract.maxStatements() != FetchContract.UNBOUNDED) {
+                BUDGET.set(new Budget(handlerMethod.toString(), contract.maxStatements()));
+            }
+        }
+        return true;
+    }
+
+    //비동기 반환(CompletableFuture 등)이면 afterCompletion 대신 이쪽이 불린다
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        BUDGET.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        BUDGET.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Budget budget = BUDGET.get();
+        if (budget != null && ++budget.executed > budget.maxStatements) {
+            throw new IllegalStateException("fetch contract of " + budget.handler + " allows " + budget.maxStatements
+                    + " statements per request, statement " + budget.executed + ": "
+                    + queryInfoList.stream().map(QueryInfo::getQuery).toList());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    private static class Budget {
+        private final String handler;
+        private final int maxStatements;
+        private int executed;
+
+        Budget(String handler, int maxStatements) {
+            this.handler = handler;
+            this.maxStatements = maxStatements;
+        }
+    }
+}
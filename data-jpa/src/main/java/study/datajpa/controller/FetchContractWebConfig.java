@@ -0,0 +1,17 @@
+package study.datajpa.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+//statement 카운트는 DataSourceProxyPostProcessor 가 같은 설정으로 붙인다
+@Configuration
+@ConditionalOnProperty(prefix = "datajpa.osiv", name = "enforce-fetch-contracts", havingValue = "true")
+public class FetchContractWebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new FetchContractEnforcer());
+    }
+}
@@ -3,39 +3,95 @@ package study.datajpa.controller;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import study.datajpa.dto.MemberChangesResponse;
+import study.datajpa.dto.MemberCreateRequest;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.PageResponse;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.search.MemberSearchProperties;
+import study.datajpa.search.SearchMode;
+import study.datajpa.service.InvalidSyncTokenException;
+import study.datajpa.service.MemberQueryService;
+import study.datajpa.service.MemberSyncService;
+import study.datajpa.service.MemberWriteCoalescer;
+import study.datajpa.sortpolicy.IndexedSort;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberSearchProperties searchProperties;
+    private final MemberWriteCoalescer memberWriteCoalescer;
+    private final MemberSyncService memberSyncService;
+    private final MemberQueryService memberQueryService;
 
+    //member 에 없으면 member_archive 까지 조회
+    @FetchContract
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id){
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+        return memberQueryService.findUsername(id);
     }
 
+    //DomainClassConverter 의 findById 트랜잭션에서 로딩된 기본 속성(username)만 읽는다
+    @FetchContract
     @GetMapping("/members2/{id}")
     public String findMember2(@PathVariable("id") Member member){
         //Member member = memberRepository.findById(id).get();
         return member.getUsername();
     }
 
+    @FetchContract
     @GetMapping("/members")
-    public Page<MemberDto> list(Pageable pageable){
-        Page<Member> page = memberRepository.findAll(pageable);
-        Page<MemberDto> map = page.map(o -> new MemberDto(o));
-        System.out.println("pageable.getOffset() = " + pageable.getOffset());
-        System.out.println("pageable.getPageNumber() = " + pageable.getPageNumber());
+    public PageResponse<Member> list(@IndexedSort(Member.class) Pageable pageable){
+        Page<Member> page = memberQueryService.findPage(pageable);
+        log.debug("pageable offset={}, pageNumber={}", pageable.getOffset(), pageable.getPageNumber());
+
+        return PageResponse.of(page, MemberDto::writeJson);
+    }
+
+    @FetchContract
+    @PostMapping("/members")
+    public CompletableFuture<Long> create(@RequestBody MemberCreateRequest request){
+        return memberWriteCoalescer.submit(new Member(request.getUsername(), request.getAge()));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String writeRejected(RejectedExecutionException e){
+        return e.getMessage();
+    }
+
+    @FetchContract
+    @GetMapping("/members/changes")
+    public MemberChangesResponse changes(@RequestParam(value = "token", required = false) String token,
+                                         @RequestParam(value = "size", defaultValue = "100") int size){
+        return memberSyncService.changesSince(token, size);
+    }
+
+    @ExceptionHandler(InvalidSyncTokenException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String invalidSyncToken(InvalidSyncTokenException e){
+        return e.getMessage();
+    }
 
-        return map;
+    @FetchContract("team")
+    @GetMapping("/members/search")
+    public List<MemberDto> search(@RequestParam("q") String q,
+                                  @RequestParam(value = "mode", defaultValue = "PREFIX") SearchMode mode,
+                                  @RequestParam(value = "limit", defaultValue = "20") int limit){
+        return memberQueryService.search(q, mode, Math.min(limit, searchProperties.getMaxResults()));
     }
 
    // @PostConstruct
@@ -0,0 +1,28 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.columnar.MemberArrowExporter;
+
+//curl -o members.arrows localhost:8080/members/export   (pyarrow.ipc.open_stream 으로 읽는다)
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberArrowExporter memberArrowExporter;
+
+    //엔티티를 거치지 않고 JDBC 커서에서 바로 쓴다
+    @FetchContract
+    @GetMapping(value = "/members/export", produces = MemberArrowExporter.STREAM_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MemberArrowExporter.STREAM_MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=members.arrows")
+                .body(memberArrowExporter::export);
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import study.datajpa.csvimport.ImportResult;
+import study.datajpa.csvimport.MemberCsvImporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+//curl -F file=@members.csv localhost:8080/members/import
+@RestController
+@RequiredArgsConstructor
+public class MemberImportController {
+
+    private final MemberCsvImporter memberCsvImporter;
+
+    //청크 수만큼 statement 가 나간다
+    @FetchContract(maxStatements = FetchContract.UNBOUNDED)
+    @PostMapping("/members/import")
+    public ImportResult importCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return memberCsvImporter.importCsv(csv);
+        }
+    }
+
+    //중단된 import 를 마지막으로 커밋된 청크 다음부터 이어서 진행
+    @FetchContract(maxStatements = FetchContract.UNBOUNDED)
+    @PostMapping("/members/import/{jobId}/resume")
+    public ImportResult resume(@PathVariable("jobId") long jobId) {
+        return memberCsvImporter.resume(jobId);
+    }
+
+    //job, 오류 수, 오류 목록
+    @FetchContract(maxStatements = 3)
+    @GetMapping("/members/import/{jobId}")
+    public ImportResult result(@PathVariable("jobId") long jobId) {
+        return memberCsvImporter.result(jobId);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+}
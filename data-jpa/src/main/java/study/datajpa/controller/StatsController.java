@@ -0,0 +1,54 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.entity.AgeHistogram;
+import study.datajpa.entity.TeamMemberCount;
+import study.datajpa.repository.AgeHistogramRepository;
+import study.datajpa.repository.TeamMemberCountRepository;
+import study.datajpa.stats.AggregateReconciler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//count/group by 없이 집계 테이블에서 바로 읽는다
+@RestController
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final TeamMemberCountRepository teamMemberCountRepository;
+    private final AgeHistogramRepository ageHistogramRepository;
+    private final AggregateReconciler aggregateReconciler;
+
+    @FetchContract
+    @GetMapping("/stats/teams/{teamId}/member-count")
+    public long teamMemberCount(@PathVariable("teamId") Long teamId){
+        return teamMemberCountRepository.findById(teamId).map(TeamMemberCount::getMemberCount).orElse(0L);
+    }
+
+    @FetchContract
+    @GetMapping("/stats/ages/{age}/member-count")
+    public long ageMemberCount(@PathVariable("age") Integer age){
+        return ageHistogramRepository.findById(age).map(AgeHistogram::getMemberCount).orElse(0L);
+    }
+
+    @FetchContract
+    @GetMapping("/stats/ages")
+    public Map<Integer, Long> ageHistogram(){
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (AgeHistogram row : ageHistogramRepository.findAllByOrderByAgeAsc()) {
+            histogram.put(row.getAge(), row.getMemberCount());
+        }
+        return histogram;
+    }
+
+    //테이블마다 어긋난 키 수만큼 repair statement 가 나간다
+    @FetchContract(maxStatements = FetchContract.UNBOUNDED)
+    @PostMapping("/stats/reconcile")
+    public int reconcile(){
+        return aggregateReconciler.reconcile();
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.csvimport;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.csv-import")
+public class CsvImportProperties {
+
+    //업로드 파일을 CSVREAD 가 읽을 수 있도록 잠시 두는 곳 (H2 서버와 같은 호스트여야 한다)
+    private String dir = "build/member-import";
+
+    //청크 하나 = 트랜잭션 하나, 중단되면 다음 청크부터 다시 시작
+    private int chunkSize = 10_000;
+
+    private int maxReportedErrors = 100;
+
+    //job 생성 후 이 기간이 지나면 job, 오류 기록, 남은 스테이징 행을 지운다 (이어서 진행하지 못한 job 포함)
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,5 @@
+package study.datajpa.csvimport;
+
+//line 은 CSV 파일의 줄 번호 (헤더 = 1)
+public record ImportError(int line, String message) {
+}
@@ -0,0 +1,7 @@
+package study.datajpa.csvimport;
+
+import java.util.List;
+
+public record ImportResult(long jobId, String status, int totalLines, int nextLine, long imported, long errorCount,
+                           List<ImportError> errors) {
+}
@@ -0,0 +1,263 @@
+package study.datajpa.csvimport;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.id.Tsid;
+import study.datajpa.readmodel.MemberReadModel;
+import study.datajpa.search.MemberSearchIndex;
+import study.datajpa.stats.MemberAggregates;
+import study.datajpa.support.AfterCommit;
+import study.datajpa.username.UsernameFilter;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * username,age,team CSV 를 JPA 없이 SQL 로 member 에 넣는다.
+ * <ol>
+ *     <li>H2 CSVREAD + INSERT ... SELECT 로 스테이징 테이블에 줄 번호와 함께 그대로 적재</li>
+ *     <li>chunkSize 줄씩 한 트랜잭션으로: 검증 실패 줄은 member_import_error 에 기록, 없는 팀은 생성,
+ *     팀 이름 -> team_id 를 풀어서 member 에 INSERT ... SELECT (감사 컬럼도 SQL 에서 채운다)</li>
+ *     <li>청크가 커밋될 때 job 의 next_line 도 같이 커밋되므로 중단되면 {@link #resume(long)} 으로 이어서 진행</li>
+ *     <li>끝나면 job 의 스테이징 행을 지운다. job 과 오류 기록은 retention 이 지나면 {@link #purgeExpiredJobs()} 가 지운다</li>
+ * </ol>
+ * 엔티티 리스너를 거치지 않으므로 집계, username 필터, 검색 색인은 청크마다 직접 반영한다.
+ */
+@Slf4j
+@Service
+@Workload(WorkloadClass.BATCH)
+@EnableConfigurationProperties(CsvImportProperties.class)
+public class MemberCsvImporter {
+
+    //검증을 통과한 스테이징 행 (job_id, from, to 파라미터)
+    private static final String VALID_ROWS =
+            "from member_import_staging s where s.job_id = ? and s.line_no between ? and ? " +
+            "and not exists (select 1 from member_import_error e where e.job_id = s.job_id and e.line_no = s.line_no)";
+
+    private static final String TEAM_ID_OF_ROW =
+            "(select min(t.team_id) from team t where t.name = nullif(trim(s.team_name), ''))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberAggregates memberAggregates;
+    private final UsernameFilter usernameFilter;
+    private final MemberSearchIndex searchIndex;
+    private final MemberReadModel memberReadModel;
+    private final CsvImportProperties properties;
+
+    public MemberCsvImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             MemberAggregates memberAggregates, UsernameFilter usernameFilter,
+                             MemberSearchIndex searchIndex, MemberReadModel memberReadModel, CsvImportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memberAggregates = memberAggregates;
+        this.usernameFilter = usernameFilter;
+        this.searchIndex = searchIndex;
+        this.memberReadModel = memberReadModel;
+        this.properties = properties;
+    }
+
+    //엔티티가 아니므로 ddl-auto 로 지워지지 않고 재기동 후에도 이어서 진행할 수 있다
+    @PostConstruct
+    public void createTables() {
+        jdbcTemplate.execute("create table if not exists member_import_job (" +
+                "job_id bigint primary key, total_lines int not null, next_line int not null, " +
+                "imported bigint not null, status varchar(20) not null, created_date timestamp not null)");
+        jdbcTemplate.execute("create table if not exists member_import_staging (" +
+                "job_id bigint not null, line_no int not null, username varchar, age_text varchar, " +
+                "team_name varchar, primary key (job_id, line_no))");
+        jdbcTemplate.execute("create table if not exists member_import_error (" +
+                "job_id bigint not null, line_no int not null, message varchar(255) not null, " +
+                "primary key (job_id, line_no))");
+    }
+
+    public ImportResult importCsv(InputStream csv) {
+        long jobId = Tsid.next();
+        Path file = copyToImportDir(csv, jobId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> stage(jobId, file));
+        } finally {
+            deleteQuietly(file);
+        }
+        return resume(jobId);
+    }
+
+    public ImportResult resume(long jobId) {
+        Map<String, Object> job = job(jobId);
+        int totalLines = ((Number) job.get("total_lines")).intValue();
+        int nextLine = ((Number) job.get("next_line")).intValue();
+        while (nextLine <= totalLines) {
+            int from = nextLine;
+            int to = Math.min(from + properties.getChunkSize() - 1, totalLines);
+            transactionTemplate.executeWithoutResult(status -> importChunk(jobId, from, to));
+            nextLine = to + 1;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("update member_import_job set status = 'DONE' where job_id = ?", jobId);
+            jdbcTemplate.update("delete from member_import_staging where job_id = ?", jobId);
+        });
+        return result(jobId);
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.csv-import.cleanup-interval:PT1H}",
+            initialDelayString = "${datajpa.csv-import.cleanup-interval:PT1H}")
+    public void scheduledPurge() {
+        purgeExpiredJobs();
+    }
+
+    //지운 job 수
+    public int purgeExpiredJobs() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(properties.getRetention()));
+        String expired = "select job_id from member_import_job where created_date < ?";
+        Integer purged = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("delete from member_import_error where job_id in (" + expired + ")", cutoff);
+            jdbcTemplate.update("delete from member_import_staging where job_id in (" + expired + ")", cutoff);
+            return jdbcTemplate.update("delete from member_import_job where created_date < ?", cutoff);
+        });
+        if (purged != null && purged > 0) {
+            log.info("purged {} import jobs created before {}", purged, cutoff);
+        }
+        return purged == null ? 0 : purged;
+    }
+
+    public ImportResult result(long jobId) {
+        Map<String, Object> job = job(jobId);
+        long errorCount = jdbcTemplate.queryForObject(
+                "select count(*) from member_import_error where job_id = ?", Long.class, jobId);
+        List<ImportError> errors = jdbcTemplate.query(
+                "select line_no, message from member_import_error where job_id = ? order by line_no limit ?",
+                (rs, rowNum) -> new ImportError(rs.getInt(1), rs.getString(2)), jobId, properties.getMaxReportedErrors());
+        return new ImportResult(jobId, (String) job.get("status"), ((Number) job.get("total_lines")).intValue(),
+                ((Number) job.get("next_line")).intValue(), ((Number) job.get("imported")).longValue(), errorCount, errors);
+    }
+
+    private void stage(long jobId, Path file) {
+        //컬럼명을 직접 주면 첫 줄(헤더)도 데이터로 읽히므로 줄 번호가 파일 줄 번호와 같아진다
+        jdbcTemplate.update("insert into member_import_staging (job_id, line_no, username, age_text, team_name) " +
+                        "select ?, rownum(), username, age, team from csvread(?, 'USERNAME,AGE,TEAM', 'charset=UTF-8')",
+                jobId, file.toAbsolutePath().toString());
+        int deletedHeader = jdbcTemplate.update("delete from member_import_staging " +
+                "where job_id = ? and line_no = 1 and lower(trim(username)) = 'username'", jobId);
+        Integer lastLine = jdbcTemplate.queryForObject(
+                "select max(line_no) from member_import_staging where job_id = ?", Integer.class, jobId);
+        jdbcTemplate.update("insert into member_import_job (job_id, total_lines, next_line, imported, status, created_date) " +
+                        "values (?, ?, ?, 0, 'RUNNING', current_timestamp)",
+                jobId, lastLine == null ? 0 : lastLine, deletedHeader + 1);
+    }
+
+    private void importChunk(long jobId, int from, int to) {
+        Object[] range = {jobId, from, to};
+        jdbcTemplate.update("insert into member_import_error (job_id, line_no, message) " +
+                "select job_id, line_no, message from (" +
+                " select s.job_id, s.line_no, case" +
+                "  when s.username is null or trim(s.username) = '' then 'username is empty'" +
+                "  when length(s.username) > 255 then 'username is longer than 255'" +
+                "  when length(trim(s.team_name)) > 255 then 'team is longer than 255'" +
+                "  when s.age_text is null or not regexp_like(trim(s.age_text), '^[0-9]{1,3}$')" +
+                "   then 'age is not a number between 0 and 999: ' || coalesce(s.age_text, '')" +
+                "  end message" +
+                " from member_import_staging s where s.job_id = ? and s.line_no between ? and ?" +
+                ") where message is not null", range);
+
+        //없는 팀 이름은 먼저 팀으로 만든다 (team id 는 애플리케이션에서 발급)
+        List<Object[]> newTeams = new ArrayList<>();
+        jdbcTemplate.queryForList("select distinct trim(s.team_name) " + VALID_ROWS +
+                        " and nullif(trim(s.team_name), '') is not null and " + TEAM_ID_OF_ROW + " is null",
+                String.class, range).forEach(name -> newTeams.add(new Object[]{Tsid.next(), name}));
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", newTeams);
+
+        //이 청크의 회원 id 는 (low, high) 구간 안에 있다
+        long low = nextMemberSequence();
+        String createdBy = "import-" + jobId;
+        int imported = jdbcTemplate.update("insert into member " +
+                "(member_id, username, age, team_id, created_date, last_modified_date, create_by, last_modified_by) " +
+                "select next value for member_seq, s.username, cast(trim(s.age_text) as int), " + TEAM_ID_OF_ROW + ", " +
+                "current_timestamp, current_timestamp, ?, ? " + VALID_ROWS + " order by s.line_no",
+                createdBy, createdBy, jobId, from, to);
+        long high = nextMemberSequence();
+
+        jdbcTemplate.query("select age, count(*) from member where member_id > ? and member_id < ? and create_by = ? group by age",
+                rs -> {
+                    memberAggregates.addAge(rs.getInt(1), rs.getLong(2));
+                }, low, high, createdBy);
+        jdbcTemplate.query("select team_id, count(*) from member where member_id > ? and member_id < ? and create_by = ? " +
+                        "and team_id is not null group by team_id",
+                rs -> {
+                    memberAggregates.addTeam(rs.getLong(1), rs.getLong(2));
+                }, low, high, createdBy);
+        List<Object[]> indexed = jdbcTemplate.query("select m.member_id, m.username, m.team_id, t.name, m.age from member m " +
+                        "left join team t on t.team_id = m.team_id where m.member_id > ? and m.member_id < ? and m.create_by = ?",
+                (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getObject(3, Long.class), rs.getString(4), rs.getInt(5)},
+                low, high, createdBy);
+        indexed.forEach(row -> usernameFilter.add((String) row[1]));
+        AfterCommit.run(() -> {
+            indexMembers(indexed);
+            indexed.forEach(row -> memberReadModel.memberSaved((Long) row[0], (Integer) row[4], (Long) row[2]));
+        });
+
+        jdbcTemplate.update("update member_import_job set next_line = ?, imported = imported + ? where job_id = ?",
+                to + 1, imported, jobId);
+        log.debug("import job {} lines {}-{}: {} members", jobId, from, to, imported);
+    }
+
+    private long nextMemberSequence() {
+        return jdbcTemplate.queryForObject("select next value for member_seq", Long.class);
+    }
+
+    private void indexMembers(List<Object[]> rows) {
+        try {
+            for (Object[] row : rows) {
+                searchIndex.put((Long) row[0], (String) row[1], (Long) row[2], (String) row[3]);
+            }
+            searchIndex.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, Object> job(long jobId) {
+        List<Map<String, Object>> jobs = jdbcTemplate.queryForList(
+                "select total_lines, next_line, imported, status from member_import_job where job_id = ?", jobId);
+        if (jobs.isEmpty()) {
+            throw new IllegalArgumentException("unknown import job: " + jobId);
+        }
+        return jobs.get(0);
+    }
+
+    private Path copyToImportDir(InputStream csv, long jobId) {
+        try {
+            Path dir = Path.of(properties.getDir());
+            Files.createDirectories(dir);
+            Path file = dir.resolve(jobId + ".csv");
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("could not delete {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package study.datajpa.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface JsonRowWriter<T> {
+
+    void write(T row, JsonGenerator gen) throws IOException;
+}
@@ -0,0 +1,29 @@
+package study.datajpa.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.Data;
+import study.datajpa.entity.Member;
+
+import java.time.LocalDateTime;
+
+@Data
+public class MemberChangeDto {
+
+    private Long id;
+    private String username;
+    private int age;
+    //팀 id 는 TSID(2^53 이상)라서 JS number 로 읽으면 정밀도가 깨진다 -> 문자열로 내려준다
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long teamId;
+    private LocalDateTime lastModifiedDate;
+
+    public MemberChangeDto(Member member) {
+        this.id = member.getId();
+        this.username = member.getUsername();
+        this.age = member.getAge();
+        //프록시의 id 조회는 초기화를 일으키지 않는다
+        this.teamId = member.getTeam() == null ? null : member.getTeam().getId();
+        this.lastModifiedDate = member.getLastModifiedDate();
+    }
+}
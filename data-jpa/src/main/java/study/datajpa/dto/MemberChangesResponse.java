@@ -0,0 +1,20 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MemberChangesResponse {
+
+    private List<MemberChangeDto> changes;
+    //다음 호출에 그대로 넘기는 워터마크, 변경이 없으면 요청한 토큰과 같다
+    private String nextToken;
+    private boolean hasMore;
+
+    public MemberChangesResponse(List<MemberChangeDto> changes, String nextToken, boolean hasMore) {
+        this.changes = changes;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+    }
+}
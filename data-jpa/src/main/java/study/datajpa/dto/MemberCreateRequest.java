@@ -0,0 +1,10 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberCreateRequest {
+
+    private String username;
+    private int age;
+}
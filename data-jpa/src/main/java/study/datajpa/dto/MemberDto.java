@@ -1,8 +1,11 @@
 package study.datajpa.dto;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.Data;
 import study.datajpa.entity.Member;
 
+import java.io.IOException;
+
 @Data
 public class MemberDto {
 
@@ -21,5 +24,17 @@ public class MemberDto {
         this.username = member.getUsername();
     }
 
+    //MemberDto(Member) 와 같은 JSON 을 DTO 객체 없이 바로 쓴다 (PageResponse 용)
+    public static void writeJson(Member member, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        if (member.getId() == null) {
+            gen.writeNullField("id");
+        } else {
+            gen.writeNumberField("id", member.getId().longValue());
+        }
+        gen.writeStringField("username", member.getUsername());
+        gen.writeNullField("teamName");
+        gen.writeEndObject();
+    }
 
 }
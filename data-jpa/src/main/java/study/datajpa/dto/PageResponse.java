@@ -0,0 +1,33 @@
+package study.datajpa.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.domain.Page;
+
+/**
+ * API 응답용 페이지 모델. Page(PageImpl)를 그대로 내보내면 Pageable, Sort 까지 리플렉션으로 직렬화되므로
+ * content 와 페이지 정보만 고정된 모양으로 내보낸다.
+ * content 는 DTO 리스트로 바꾸지 않고 직렬화 시점에 rowWriter 로 한 건씩 바로 쓴다.
+ */
+@JsonSerialize(using = PageResponseSerializer.class)
+public class PageResponse<T> {
+
+    private final Page<T> page;
+    private final JsonRowWriter<T> rowWriter;
+
+    private PageResponse(Page<T> page, JsonRowWriter<T> rowWriter) {
+        this.page = page;
+        this.rowWriter = rowWriter;
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page, JsonRowWriter<T> rowWriter) {
+        return new PageResponse<>(page, rowWriter);
+    }
+
+    public Page<T> getPage() {
+        return page;
+    }
+
+    public JsonRowWriter<T> getRowWriter() {
+        return rowWriter;
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+
+public class PageResponseSerializer extends StdSerializer<PageResponse<?>> {
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PageResponseSerializer() {
+        super((Class) PageResponse.class);
+    }
+
+    @Override
+    public void serialize(PageResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writePage(value, gen);
+    }
+
+    private static <T> void writePage(PageResponse<T> value, JsonGenerator gen) throws IOException {
+        Page<T> page = value.getPage();
+        JsonRowWriter<T> rowWriter = value.getRowWriter();
+
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("content");
+        for (T row : page.getContent()) {
+            rowWriter.write(row, gen);
+        }
+        gen.writeEndArray();
+        gen.writeNumberField("page", page.getNumber());
+        gen.writeNumberField("size", page.getSize());
+        gen.writeNumberField("totalElements", page.getTotalElements());
+        gen.writeNumberField("totalPages", page.getTotalPages());
+        gen.writeBooleanField("last", page.isLast());
+        gen.writeEndObject();
+    }
+}
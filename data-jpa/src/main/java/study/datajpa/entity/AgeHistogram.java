@@ -0,0 +1,19 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+//나이별 회원 수 집계 테이블 - MemberAggregateListener 가 증분 갱신
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AgeHistogram {
+
+    @Id
+    private Integer age;
+
+    private long memberCount;
+}
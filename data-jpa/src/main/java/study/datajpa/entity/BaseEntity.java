@@ -31,4 +31,12 @@ public class BaseEntity {
     @LastModifiedBy
     private String lastModifiedBy;
 
+    //아카이브에서 되살린 엔티티에 원래 감사 정보를 채운다
+    protected void restoreAudit(LocalDateTime createdDate, LocalDateTime lastModifiedDate,
+                                String createBy, String lastModifiedBy) {
+        this.createdDate = createdDate;
+        this.lastModifiedDate = lastModifiedDate;
+        this.createBy = createBy;
+        this.lastModifiedBy = lastModifiedBy;
+    }
 }
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.id.Tsid;
 
 import java.time.LocalDateTime;
 
@@ -26,6 +27,11 @@ public class Item implements Persistable<String> {
         this.id = id;
     }
 
+    //랜덤 문자열 대신 시간순 id -> PK 인덱스 끝에만 추가된다
+    public static Item create() {
+        return new Item(Tsid.nextString());
+    }
+
     public LocalDateTime getCreatedDate() {
         return createdDate;
     }
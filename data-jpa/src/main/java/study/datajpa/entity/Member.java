@@ -2,6 +2,13 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import study.datajpa.id.PooledSequenceGenerator;
+import study.datajpa.readmodel.MemberReadModelListener;
+import study.datajpa.search.MemberSearchListener;
+import study.datajpa.stats.MemberAggregateListener;
+import study.datajpa.username.UsernameFilterListener;
 
 @Entity
 @Getter
@@ -13,10 +20,21 @@ import lombok.*;
         query = "select m from Member m where m.username = :username"
 )
 @NamedEntityGraph(name = "Member.all",attributeNodes = @NamedAttributeNode("team"))
+@EntityListeners({MemberSearchListener.class, MemberAggregateListener.class, UsernameFilterListener.class,
+        MemberReadModelListener.class})
+//정렬 허용 속성(datajpa.sort-policy)은 인덱스 선두 컬럼이어야 한다. member_id 는 페이지 정렬의 tie-breaker
+@Table(indexes = {
+        @Index(name = "idx_member_last_modified", columnList = "lastModifiedDate, member_id"),
+        @Index(name = "idx_member_username", columnList = "username, member_id"),
+        @Index(name = "idx_member_age", columnList = "age, member_id")})
 public class Member extends BaseEntity{
 
+    //insert 마다 키를 받아오는 IDENTITY 대신 시퀀스 블록을 미리 받아 두고 JDBC 배치로 insert
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "member_seq")
+    @GenericGenerator(name = "member_seq", type = PooledSequenceGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "member_seq"),
+            @Parameter(name = "increment_size", value = "50")})
     @Column(name = "member_id")
     private Long id;
 
@@ -28,6 +46,20 @@ public class Member extends BaseEntity{
     @JoinColumn(name = "team_id")
     private Team team;
 
+    //집계 테이블에 마지막으로 반영된 나이/팀 (update 시 이전 값을 알기 위해 보관)
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Integer aggregatedAge;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Long aggregatedTeamId;
+
+    //member_archive 에서 읽은 준영속 회원 (변경해도 반영되지 않는다)
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private boolean archived;
+
     public Member(String username, int age, Team team) {
         this.username = username;
         this.age = age;
@@ -49,4 +81,18 @@ public class Member extends BaseEntity{
         this.team = team;
         team.getMembers().add(this);
     }
+
+    //프록시의 id 조회는 초기화를 일으키지 않는다
+    public Long getTeamId(){
+        return team == null ? null : team.getId();
+    }
+
+    void markArchived(){
+        this.archived = true;
+    }
+
+    public void markAggregated(){
+        this.aggregatedAge = age;
+        this.aggregatedTeamId = getTeamId();
+    }
 }
@@ -0,0 +1,54 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+//오래된 회원 보관 테이블 - MemberArchiver 가 SQL 로 옮기고 JPA 로는 읽기만 한다
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "member_archive", indexes = @Index(name = "idx_member_archive_username", columnList = "username"))
+public class MemberArchive {
+
+    @Id
+    @Column(name = "member_id")
+    private Long id;
+
+    private String username;
+
+    private int age;
+
+    //팀이 삭제될 수 있으므로 FK 없이 id 만 보관
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private LocalDateTime createdDate;
+
+    private LocalDateTime lastModifiedDate;
+
+    private String createBy;
+
+    private String lastModifiedBy;
+
+    private LocalDateTime archivedDate;
+
+    public Member toMember(Team team) {
+        Member member = new Member(username, age);
+        member.setId(id);
+        //changeTeam 은 team.members 를 초기화하므로 참조만 건다
+        member.setTeam(team);
+        member.restoreAudit(createdDate, lastModifiedDate, createBy, lastModifiedBy);
+        member.markArchived();
+        return member;
+    }
+}
@@ -2,6 +2,8 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import study.datajpa.id.TimeOrderedId;
+import study.datajpa.search.TeamSearchListener;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,10 +13,12 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 //@ToString(of = {"id","name"})
+@EntityListeners(TeamSearchListener.class)
 public class Team {
 
+    //샤드에 그대로 복제되므로 DB 와 무관하게 전역에서 유일한 id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     @Column(name = "team_id")
     private Long id;
 
@@ -0,0 +1,33 @@
+package study.datajpa.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * pooled-lo 시퀀스. 엔티티에 적은 increment_size 를 설정으로 덮어쓸 수 있다.
+ * <pre>
+ * spring.jpa.properties.datajpa.id.allocation-size.member_seq: 100
+ * </pre>
+ * pooled-lo 는 시퀀스 값을 블록의 시작으로 쓰기 때문에 SQL 에서 {@code next value for} 로 직접 꺼내 써도 id 가 겹치지 않는다.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_PREFIX = "datajpa.id.allocation-size.";
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        String sequenceName = parameters.getProperty(SEQUENCE_PARAM);
+        Object allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSettings().get(ALLOCATION_SIZE_PREFIX + sequenceName);
+        if (allocationSize != null) {
+            parameters.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        }
+        parameters.putIfAbsent(OPT_PARAM, "pooled-lo");
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
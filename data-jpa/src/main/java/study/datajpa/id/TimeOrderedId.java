@@ -0,0 +1,19 @@
+package study.datajpa.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+
+/**
+ * {@link Tsid} 로 id 를 발급한다. insert 전에 메모리에서 만들어지므로 DB 왕복이 없고 JDBC 배치가 가능하다.
+ */
+@IdGeneratorType(TsidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TimeOrderedId {
+}
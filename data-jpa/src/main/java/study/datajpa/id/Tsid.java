@@ -0,0 +1,73 @@
+package study.datajpa.id;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간순으로 증가하는 64bit id (TSID / Snowflake 방식).
+ * <pre>
+ * | 42bit 커스텀 epoch 이후 ms | 10bit node | 12bit sequence |
+ * </pre>
+ * 락 없이 CAS 로만 발급한다. 같은 ms 안에서 sequence 가 넘치면 다음 ms 를 미리 빌려 쓰므로 항상 단조 증가한다.
+ * node 는 시스템 프로퍼티 {@code datajpa.id.node} (0~1023), 없으면 기동 시 랜덤으로 정한다.
+ */
+public final class Tsid {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final long NODE = resolveNode();
+
+    //(ms << SEQUENCE_BITS) | sequence, node 는 발급할 때 끼워 넣는다
+    private static final AtomicLong state = new AtomicLong();
+
+    private Tsid() {
+    }
+
+    public static long next() {
+        while (true) {
+            long prev = state.get();
+            long candidate = Math.max((System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS, prev + 1);
+            if (state.compareAndSet(prev, candidate)) {
+                return ((candidate >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (NODE << SEQUENCE_BITS)
+                        | (candidate & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    //13자리 Crockford base32, 문자열 정렬 순서 = 숫자 순서
+    public static String nextString() {
+        return toString(next());
+    }
+
+    public static String toString(long tsid) {
+        char[] chars = new char[13];
+        for (int i = 12; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (tsid & 0x1F)];
+            tsid >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static Instant instantOf(long tsid) {
+        return Instant.ofEpochMilli((tsid >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    private static long resolveNode() {
+        String node = System.getProperty("datajpa.id.node");
+        if (node != null) {
+            long value = Long.parseLong(node);
+            if (value < 0 || value >= (1L << NODE_BITS)) {
+                throw new IllegalArgumentException("datajpa.id.node must be between 0 and " + ((1 << NODE_BITS) - 1));
+            }
+            return value;
+        }
+        return new SecureRandom().nextInt(1 << NODE_BITS);
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+
+/**
+ * {@link TimeOrderedId} 가 붙은 Long / String id 에 {@link Tsid} 를 채운다.
+ */
+public class TsidGenerator implements BeforeExecutionGenerator {
+
+    private final boolean stringId;
+
+    public TsidGenerator(TimeOrderedId config, Member idMember, CustomIdGeneratorCreationContext context) {
+        Class<?> idType = idMember instanceof Field field ? field.getType() : ((Method) idMember).getReturnType();
+        this.stringId = String.class.equals(idType);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return stringId ? Tsid.nextString() : Tsid.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
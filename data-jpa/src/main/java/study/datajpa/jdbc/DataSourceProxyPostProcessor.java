@@ -0,0 +1,62 @@
+package study.datajpa.jdbc;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import study.datajpa.controller.FetchContractEnforcer;
+import study.datajpa.repository.support.QueryPolicies;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 빈을 datasource-proxy 로 감싸서 모든 statement 실행에 리스너를 붙인다.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final ObjectProvider<QueryPolicies> queryPolicies;
+    private final Environment environment;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog, ObjectProvider<QueryPolicies> queryPolicies,
+                                        Environment environment) {
+        this.slowQueryLog = slowQueryLog;
+        this.queryPolicies = queryPolicies;
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        SlowQueryLog log = slowQueryLog.getObject();
+        boolean slowQueryEnabled = log.getProperties().isEnabled();
+        boolean detectNonTransactional = environment.getProperty(
+                "datajpa.osiv.detect-non-transactional-queries", Boolean.class, false);
+        boolean enforceFetchContracts = environment.getProperty(
+                "datajpa.osiv.enforce-fetch-contracts", Boolean.class, false);
+        QueryPolicies policies = queryPolicies.getObject();
+        if (!slowQueryEnabled && !detectNonTransactional && !enforceFetchContracts && !policies.isEnabled()) {
+            return bean;
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+        if (detectNonTransactional) {
+            builder.listener(new NonTransactionalQueryDetector());
+        }
+        if (enforceFetchContracts) {
+            builder.listener(new FetchContractEnforcer());
+        }
+        if (policies.isEnabled()) {
+            QueryPolicyListener policyListener = new QueryPolicyListener(policies);
+            builder.listener(policyListener).methodListener(policyListener);
+        }
+        if (slowQueryEnabled) {
+            builder.listener(new SlowQueryListener(log, dataSource));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+
+/**
+ * 웹 요청 스레드에서 트랜잭션 밖으로 나가는 쿼리(뷰/컨트롤러에서의 지연 로딩 등)를 실행 전에 막는다.
+ * 엔드포인트의 {@link study.datajpa.controller.FetchContract} 경로가 서비스 트랜잭션에서 로딩되지 않았다는 뜻이므로 테스트에서 바로 실패하게 한다.
+ */
+public class NonTransactionalQueryDetector implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (RequestContextHolder.getRequestAttributes() == null
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        throw new IllegalStateException("query outside transaction in web request: "
+                + queryInfoList.stream().map(QueryInfo::getQuery).toList());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
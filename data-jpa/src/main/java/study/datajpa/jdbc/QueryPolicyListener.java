@@ -0,0 +1,83 @@
+package study.datajpa.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import study.datajpa.repository.support.QueryPolicies;
+import study.datajpa.repository.support.QueryPolicy;
+import study.datajpa.repository.support.RepositoryMethodContext;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 리포지토리 메서드 안에서 만들어지는 statement 에 정책(query timeout, fetch size, max rows)을 적용한다.
+ * 타임아웃은 드라이버가 statement 를 취소하는 방식으로 강제되고, 취소된 실행은 위반으로 기록한다.
+ * max rows 는 한 행 더(maxRows + 1) 요청해서 넘쳤는지 QueryPolicyInterceptor 가 알 수 있게 한다.
+ */
+@Slf4j
+public class QueryPolicyListener implements MethodExecutionListener, QueryExecutionListener {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    //쿼리 취소 SQLState
+    private static final String QUERY_CANCELED = "57014";
+
+    private final QueryPolicies policies;
+
+    public QueryPolicyListener(QueryPolicies policies) {
+        this.policies = policies;
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!STATEMENT_FACTORIES.contains(executionContext.getMethod().getName())
+                || !(executionContext.getResult() instanceof Statement statement)) {
+            return;
+        }
+        QueryPolicy policy = policies.resolve(RepositoryMethodContext.current());
+        if (policy == QueryPolicy.NONE) {
+            return;
+        }
+        try {
+            if (policy.timeoutSeconds() > 0) {
+                statement.setQueryTimeout(policy.timeoutSeconds());
+            }
+            if (policy.fetchSize() != null) {
+                statement.setFetchSize(policy.fetchSize());
+            }
+            if (policy.maxRows() != null) {
+                statement.setMaxRows((int) Math.min(Integer.MAX_VALUE, policy.maxRows() + 1L));
+            }
+        } catch (SQLException e) {
+            log.debug("could not apply query policy {}", policy, e);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String method = RepositoryMethodContext.current();
+        if (method != null && isTimeout(execInfo.getThrowable())) {
+            policies.violation(method, "timeout");
+        }
+    }
+
+    private static boolean isTimeout(Throwable throwable) {
+        return throwable instanceof SQLTimeoutException
+                || throwable instanceof SQLException e && QUERY_CANCELED.equals(e.getSQLState());
+    }
+}
@@ -0,0 +1,6 @@
+package study.datajpa.jdbc;
+
+import java.util.List;
+
+public record SlowQuery(String sql, List<Object> parameters, long elapsedMillis, String repositoryMethod, String thread) {
+}
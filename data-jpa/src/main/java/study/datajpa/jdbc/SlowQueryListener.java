@@ -0,0 +1,66 @@
+package study.datajpa.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import study.datajpa.repository.support.RepositoryMethodContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 모든 statement 실행 시간을 재고 threshold 를 넘으면 바인드 파라미터, 호출한 리포지토리 메서드와 함께 SlowQueryLog 로 넘긴다.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private final SlowQueryLog slowQueryLog;
+    private final DataSource rawDataSource;
+    private final long thresholdMillis;
+    private final double sampleRate;
+
+    public SlowQueryListener(SlowQueryLog slowQueryLog, DataSource rawDataSource) {
+        this.slowQueryLog = slowQueryLog;
+        this.rawDataSource = rawDataSource;
+        this.thresholdMillis = slowQueryLog.getProperties().getThreshold().toMillis();
+        this.sampleRate = slowQueryLog.getProperties().getSampleRate();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        String method = RepositoryMethodContext.current();
+        for (QueryInfo queryInfo : queryInfoList) {
+            slowQueryLog.submit(new SlowQuery(queryInfo.getQuery(), firstParameters(queryInfo), execInfo.getElapsedTime(),
+                    method, Thread.currentThread().getName()), rawDataSource);
+        }
+    }
+
+    //배치 실행이면 첫 번째 파라미터 묶음만 남긴다
+    private static List<Object> firstParameters(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        List<ParameterSetOperation> operations = new ArrayList<>(queryInfo.getParametersList().get(0));
+        operations.sort(Comparator.comparingInt(operation -> operation.getArgs()[0] instanceof Integer index ? index : 0));
+        List<Object> parameters = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            //setNull(index, sqlType) 은 값 대신 sqlType 이 들어있다
+            boolean isNull = operation.getMethod().getName().equals("setNull");
+            parameters.add(isNull ? null : operation.getArgs()[1]);
+        }
+        return parameters;
+    }
+}
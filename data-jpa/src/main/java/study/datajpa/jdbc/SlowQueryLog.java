@@ -0,0 +1,127 @@
+package study.datajpa.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 느린 쿼리를 별도 스레드에서 로그로 남긴다. 요청 스레드는 큐에 넣기만 하고, 큐가 가득 차면 버린다.
+ * EXPLAIN 은 풀과 별개인 전용 커넥션 하나로 실행한다. 쿼리가 느려지는 건 대개 풀이 바닥났을 때라서
+ * 풀에서 빌리면 로그 스레드가 connection-timeout 만큼 막히고 그동안 큐가 넘친다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class SlowQueryLog {
+
+    private final SlowQueryProperties properties;
+    private final ThreadPoolExecutor executor;
+    @Getter
+    private final AtomicLong dropped = new AtomicLong();
+    //대상 Hikari 풀(샤드, workload 풀) 별 EXPLAIN 전용 커넥션, 로그 스레드에서만 쓴다
+    private final Map<HikariDataSource, SingleConnectionDataSource> explainDataSources = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(SlowQueryProperties properties) {
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.incrementAndGet());
+    }
+
+    public SlowQueryProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * 요청 스레드에서 호출한다. 라우팅 DataSource(샤드, workload)는 이 스레드의 라우팅 키로만 대상을 고를 수 있으므로
+     * EXPLAIN 대상 Hikari 풀은 여기서 풀어 두고, 로그 스레드는 그 접속 정보로 EXPLAIN 한다.
+     *
+     * @param rawDataSource EXPLAIN 실행용. 프록시가 아닌 원본이어야 EXPLAIN 자체가 다시 기록되지 않는다
+     */
+    public void submit(SlowQuery query, DataSource rawDataSource) {
+        boolean explain = properties.isExplain() && isSelect(query.sql());
+        HikariDataSource target = explain ? hikariOf(rawDataSource) : null;
+        executor.execute(() -> {
+            String plan = explain ? explain(query, target) : null;
+            log.warn("slow query {} ms, method={}, thread={}\nsql={}\nparams={}{}",
+                    query.elapsedMillis(), query.repositoryMethod(), query.thread(), query.sql(), query.parameters(),
+                    plan == null ? "" : "\nplan=" + plan);
+        });
+    }
+
+    //라우팅 DataSource 의 unwrap 은 현재 스레드의 라우팅 키로 고른 대상으로 위임된다
+    static HikariDataSource hikariOf(DataSource rawDataSource) {
+        try {
+            return rawDataSource.isWrapperFor(HikariDataSource.class) ? rawDataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private String explain(SlowQuery query, HikariDataSource target) {
+        if (target == null) {
+            return "EXPLAIN skipped: not a Hikari data source";
+        }
+        SingleConnectionDataSource dataSource = explainDataSources.computeIfAbsent(target, SlowQueryLog::explainDataSource);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (int i = 0; i < query.parameters().size(); i++) {
+                statement.setObject(i + 1, query.parameters().get(i));
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.add(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            //끊긴 커넥션이면 다음 EXPLAIN 때 다시 연다
+            dataSource.resetConnection();
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private static SingleConnectionDataSource explainDataSource(HikariDataSource hikari) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                hikari.getJdbcUrl(), hikari.getUsername(), hikari.getPassword(), true);
+        if (hikari.getDriverClassName() != null) {
+            dataSource.setDriverClassName(hikari.getDriverClassName());
+        }
+        return dataSource;
+    }
+
+    private static boolean isSelect(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        explainDataSources.values().forEach(SingleConnectionDataSource::destroy);
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.jdbc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.slow-query")
+public class SlowQueryProperties {
+
+    private boolean enabled = true;
+
+    private Duration threshold = Duration.ofMillis(200);
+
+    //threshold 를 넘은 쿼리 중 로그로 남길 비율 (0.0 ~ 1.0)
+    private double sampleRate = 1.0;
+
+    //select 문이면 같은 파라미터로 EXPLAIN 을 실행해서 실행 계획도 남긴다 (풀 밖의 전용 커넥션 1개 사용)
+    private boolean explain = true;
+
+    //비동기 로그 큐 크기, 넘치면 버린다
+    private int queueCapacity = 1000;
+}
@@ -0,0 +1,40 @@
+package study.datajpa.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.datajpa.Flush")
+@Label("Hibernate Flush")
+@Category({"Data JPA", "Hibernate"})
+@Description("Hibernate flush 한 번 (auto 는 쿼리 전 부분 flush)")
+@Enabled(false)
+@StackTrace(false)
+class FlushEvent extends Event {
+
+    @Label("Repository Method")
+    String repositoryMethod;
+
+    @Label("Auto")
+    boolean auto;
+
+    @Label("Managed Entities")
+    int entities;
+
+    @Label("Managed Collections")
+    int collections;
+
+    @Label("Entities Dirty-Checked")
+    int dirtyChecked;
+
+    @Label("Dirty Entities")
+    int dirty;
+
+    @Label("JDBC Executions")
+    @Description("flush 중 드라이버로 보낸 statement/batch 실행 수")
+    int statements;
+}
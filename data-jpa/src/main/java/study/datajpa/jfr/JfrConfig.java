@@ -0,0 +1,25 @@
+package study.datajpa.jfr;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JFR 커스텀 이벤트 (study.datajpa.*). 이벤트는 기본으로 꺼져 있고, 녹화할 때 jfr/datajpa.jfc 설정으로 켠다.
+ * 예) -XX:StartFlightRecording:settings=default,settings=datajpa.jfc,filename=datajpa.jfr
+ */
+@Configuration(proxyBeanMethods = false)
+public class JfrConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jfrSessionEventsCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JfrSessionEventListener.class.getName());
+    }
+
+    @Bean
+    public PersistenceContextRecorder persistenceContextRecorder(EntityManagerFactory entityManagerFactory) {
+        return new PersistenceContextRecorder(entityManagerFactory);
+    }
+}
@@ -0,0 +1,69 @@
+package study.datajpa.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+//리포지토리 호출마다 RepositoryInvocationEvent. 이벤트가 꺼져 있으면 isEnabled() 검사만 한다
+public class JfrRepositoryInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+
+    public JfrRepositoryInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryInvocationEvent event = new RepositoryInvocationEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = repositoryName + "." + invocation.getMethod().getName();
+                event.rows = event.failed ? -1 : rows(result, invocation.getMethod().getReturnType());
+                event.commit();
+            }
+        }
+    }
+
+    private static long rows(Object result, Class<?> returnType) {
+        if (returnType == void.class || result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.jfr;
+
+import org.hibernate.SessionEventListener;
+import study.datajpa.repository.support.RepositoryMethodContext;
+
+/**
+ * 세션마다 하나씩 만들어지는 Hibernate 리스너 (hibernate.session.events.auto).
+ * flush 동안의 dirty check, JDBC 실행 수를 세서 FlushEvent 로 남긴다.
+ */
+public class JfrSessionEventListener implements SessionEventListener {
+
+    private transient FlushEvent flush;
+
+    @Override
+    public void flushStart() {
+        start(false);
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        end(numberOfEntities, numberOfCollections);
+    }
+
+    @Override
+    public void partialFlushStart() {
+        start(true);
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        end(numberOfEntities, numberOfCollections);
+    }
+
+    @Override
+    public void dirtyCalculationEnd(boolean dirty) {
+        if (flush != null) {
+            flush.dirtyChecked++;
+            if (dirty) {
+                flush.dirty++;
+            }
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        if (flush != null) {
+            flush.statements++;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        if (flush != null) {
+            flush.statements++;
+        }
+    }
+
+    private void start(boolean auto) {
+        FlushEvent event = new FlushEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.auto = auto;
+        event.repositoryMethod = RepositoryMethodContext.current();
+        event.begin();
+        flush = event;
+    }
+
+    private void end(int numberOfEntities, int numberOfCollections) {
+        FlushEvent event = flush;
+        if (event == null) {
+            return;
+        }
+        flush = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.entities = numberOfEntities;
+            event.collections = numberOfCollections;
+            event.commit();
+        }
+    }
+}
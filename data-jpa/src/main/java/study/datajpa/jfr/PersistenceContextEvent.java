@@ -0,0 +1,30 @@
+package study.datajpa.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.datajpa.PersistenceContext")
+@Label("Persistence Context At Transaction End")
+@Category({"Data JPA", "Hibernate"})
+@Description("트랜잭션 종료 시점의 영속성 컨텍스트 크기")
+@Enabled(false)
+@StackTrace(false)
+class PersistenceContextEvent extends Event {
+
+    @Label("Transaction")
+    String transaction;
+
+    @Label("Committed")
+    boolean committed;
+
+    @Label("Managed Entities")
+    int entities;
+
+    @Label("Managed Collections")
+    int collections;
+}
@@ -0,0 +1,47 @@
+package study.datajpa.jfr;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 바깥 트랜잭션이 끝날 때 영속성 컨텍스트 크기를 PersistenceContextEvent 로 남긴다.
+ * 커밋/롤백 직후, EntityManager 가 닫히기 전에 호출된다.
+ */
+public class PersistenceContextRecorder implements TransactionExecutionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PersistenceContextRecorder(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, commitFailure == null);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, false);
+    }
+
+    private void record(TransactionExecution transaction, boolean committed) {
+        PersistenceContextEvent event = new PersistenceContextEvent();
+        if (!event.shouldCommit() || !transaction.isNewTransaction()
+                || !(TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder)) {
+            return;
+        }
+        PersistenceContext persistenceContext = holder.getEntityManager().unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal();
+        event.transaction = transaction.getTransactionName();
+        event.committed = committed;
+        event.entities = persistenceContext.getNumberOfManagedEntities();
+        event.collections = persistenceContext.getCollectionEntriesSize();
+        event.commit();
+    }
+}
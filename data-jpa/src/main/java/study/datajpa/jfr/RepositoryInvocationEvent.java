@@ -0,0 +1,28 @@
+package study.datajpa.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("study.datajpa.RepositoryInvocation")
+@Label("Repository Invocation")
+@Category({"Data JPA", "Repository"})
+@Description("스프링 데이터 리포지토리 메서드 호출 (트랜잭션 커밋 포함)")
+@Enabled(false)
+@StackTrace(false)
+class RepositoryInvocationEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    @Description("반환한 엔티티/행 수, 알 수 없으면 -1")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,19 @@
+package study.datajpa.purge;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.purge")
+public class PurgeProperties {
+
+    //DELETE 한 번, 트랜잭션 한 번에 지우는 최대 행 수 (잠금 범위, undo 크기 제한)
+    private int chunkSize = 1000;
+
+    //청크 트랜잭션 사이에 쉬는 시간
+    private Duration pause = Duration.ZERO;
+}
@@ -0,0 +1,193 @@
+package study.datajpa.purge;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.readmodel.MemberReadModel;
+import study.datajpa.search.MemberSearchIndex;
+import study.datajpa.stats.MemberAggregates;
+import study.datajpa.support.AfterCommit;
+import study.datajpa.username.UsernameFilter;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 회원/팀 대량 삭제. 엔티티를 로딩하지 않고 FK 순서(member -> member_archive -> 집계 -> team)대로
+ * chunkSize 단위 DELETE ... WHERE id IN (...) 로 지운다.
+ * <p>
+ * 트랜잭션 밖에서 호출하면 청크마다 커밋하므로 트랜잭션/잠금 크기가 chunkSize 로 제한된다.
+ * 트랜잭션 안에서 호출하면 그 트랜잭션에 참여하고, 영속성 컨텍스트에서 지운 엔티티만 detach 한다 (clear() 하지 않음).
+ * 2차 캐시가 켜져 있으면 해당 엔티티와 Team.members 컬렉션 캐시도 비운다.
+ */
+@Slf4j
+@Service
+@Workload(WorkloadClass.BATCH)
+@EnableConfigurationProperties(PurgeProperties.class)
+public class PurgeService {
+
+    private static final String TEAM_MEMBERS_ROLE = Team.class.getName() + ".members";
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberAggregates memberAggregates;
+    private final MemberSearchIndex searchIndex;
+    private final UsernameFilter usernameFilter;
+    private final MemberReadModel memberReadModel;
+    private final int chunkSize;
+    private final long pauseNanos;
+
+    public PurgeService(EntityManager em, EntityManagerFactory emf, JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager, MemberAggregates memberAggregates,
+                        MemberSearchIndex searchIndex, UsernameFilter usernameFilter, MemberReadModel memberReadModel,
+                        PurgeProperties properties) {
+        this.em = em;
+        this.emf = emf;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memberAggregates = memberAggregates;
+        this.searchIndex = searchIndex;
+        this.usernameFilter = usernameFilter;
+        this.memberReadModel = memberReadModel;
+        this.chunkSize = properties.getChunkSize();
+        this.pauseNanos = properties.getPause().toNanos();
+    }
+
+    //지운 회원 수
+    public long purgeMembers(Collection<Long> memberIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(memberIds));
+        long total = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            total += inChunkTransaction(() -> deleteMembers(chunk));
+        }
+        return total;
+    }
+
+    public long purgeTeam(Long teamId) {
+        return purgeTeams(List.of(teamId));
+    }
+
+    //팀과 소속 회원(보관된 회원 포함)을 지우고 지운 회원 수를 돌려준다
+    public long purgeTeams(Collection<Long> teamIds) {
+        long total = 0;
+        for (Long teamId : new LinkedHashSet<>(teamIds)) {
+            int deleted;
+            do {
+                deleted = inChunkTransaction(() -> deleteMembers(jdbcTemplate.queryForList(
+                        "select member_id from member where team_id = ? order by member_id limit ?",
+                        Long.class, teamId, chunkSize)));
+                total += deleted;
+            } while (deleted == chunkSize);
+
+            do {
+                deleted = inChunkTransaction(() -> jdbcTemplate.update(
+                        "delete from member_archive where member_id in " +
+                        "(select member_id from member_archive where team_id = ? limit ?)", teamId, chunkSize));
+                total += deleted;
+            } while (deleted == chunkSize);
+
+            inChunkTransaction(() -> deleteTeam(teamId));
+        }
+        log.info("purged teams {} with {} members", teamIds, total);
+        return total;
+    }
+
+    private int deleteMembers(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        //같은 트랜잭션의 아직 flush 안 된 변경이 DELETE 뒤에 나가지 않도록
+        em.flush();
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+        List<String> usernames = new ArrayList<>(ids.size());
+        Set<Long> teamIds = new LinkedHashSet<>();
+        jdbcTemplate.query("select username, team_id from member where member_id in (" + in + ")", rs -> {
+            usernames.add(rs.getString(1));
+            long teamId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                teamIds.add(teamId);
+            }
+        }, args);
+
+        memberAggregates.removeMembers(ids);
+        int deleted = jdbcTemplate.update("delete from member where member_id in (" + in + ")", args);
+
+        ids.forEach(this::evictMember);
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        teamIds.forEach(teamId -> sessionFactory.getCache().evictCollectionData(TEAM_MEMBERS_ROLE, teamId));
+        AfterCommit.run(() -> {
+            ids.forEach(searchIndex::delete);
+            usernames.forEach(usernameFilter::removed);
+            memberReadModel.membersRemoved(ids);
+        });
+        return deleted;
+    }
+
+    private int deleteTeam(Long teamId) {
+        em.flush();
+        jdbcTemplate.update("delete from team_member_count where team_id = ?", teamId);
+        int deleted = jdbcTemplate.update("delete from team where team_id = ?", teamId);
+        Team team = managed(Team.class, teamId);
+        if (team != null) {
+            em.detach(team);
+        }
+        emf.getCache().evict(Team.class, teamId);
+        emf.unwrap(SessionFactory.class).getCache().evictCollectionData(TEAM_MEMBERS_ROLE, teamId);
+        return deleted;
+    }
+
+    private void evictMember(Long memberId) {
+        Member member = managed(Member.class, memberId);
+        if (member != null) {
+            //이미 로딩된 team.members 에서도 빼서 지워진 회원이 보이지 않게 한다
+            Team team = member.getTeam();
+            if (team != null && Hibernate.isInitialized(team) && Hibernate.isInitialized(team.getMembers())) {
+                team.getMembers().remove(member);
+            }
+            em.detach(member);
+        }
+        emf.getCache().evict(Member.class, memberId);
+    }
+
+    //로딩을 일으키지 않고 영속성 컨텍스트에 있는 엔티티만 꺼낸다
+    private <T> T managed(Class<T> type, Object id) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(type);
+        return type.cast(session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister)));
+    }
+
+    private int inChunkTransaction(ChunkWork work) {
+        Integer result = transactionTemplate.execute(status -> work.run());
+        if (pauseNanos > 0) {
+            LockSupport.parkNanos(pauseNanos);
+        }
+        return result == null ? 0 : result;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWork {
+        int run();
+    }
+}
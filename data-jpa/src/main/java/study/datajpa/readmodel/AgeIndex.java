@@ -0,0 +1,139 @@
+package study.datajpa.readmodel;
+
+import java.util.Arrays;
+
+/**
+ * age -> 정렬된 member_id 배열. 버킷 배열 전체를 copy-on-write 로 바꾸고 volatile 쓰기 한 번으로 공개한다.
+ * 쓰기는 한 번에 한 스레드만(MemberReadModel 이 동기화), 읽기는 락 없이 공개된 버킷 배열 하나를 읽으므로
+ * 벌크 age+1 도중에도 이전 또는 이후 상태만 보인다 (버킷 사이 중복, 누락 없음).
+ * 0..maxAge 는 age 별 버킷, maxAge 보다 큰 age 는 마지막 overflow 버킷에 모은다.
+ * overflow 버킷은 age 가 섞여 있어 응답하지 않는다 (covers 가 false, DB 로 조회).
+ */
+final class AgeIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private volatile long[][] buckets;
+
+    AgeIndex(int maxAge) {
+        long[][] initial = new long[maxAge + 2][];
+        Arrays.fill(initial, EMPTY);
+        this.buckets = initial;
+    }
+
+    boolean covers(int age) {
+        return age >= 0 && age < buckets.length - 1;
+    }
+
+    int count(int age) {
+        return covers(age) ? buckets[age].length : 0;
+    }
+
+    //id 순서로 offset 부터 최대 limit 개, descending 이면 큰 id 부터
+    long[] ids(int age, long offset, int limit, boolean descending) {
+        long[] ids = covers(age) ? buckets[age] : EMPTY;
+        if (offset >= ids.length) {
+            return EMPTY;
+        }
+        int from = (int) offset;
+        int to = (int) Math.min((long) ids.length, offset + limit);
+        if (!descending) {
+            return Arrays.copyOfRange(ids, from, to);
+        }
+        long[] result = new long[to - from];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids[ids.length - 1 - from - i];
+        }
+        return result;
+    }
+
+    void add(int age, long memberId) {
+        int bucket = bucketOf(age);
+        if (bucket < 0) {
+            return;
+        }
+        long[] ids = buckets[bucket];
+        int position = Arrays.binarySearch(ids, memberId);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insertAt);
+        copy[insertAt] = memberId;
+        System.arraycopy(ids, insertAt, copy, insertAt + 1, ids.length - insertAt);
+        publish(bucket, copy);
+    }
+
+    void remove(int age, long memberId) {
+        int bucket = bucketOf(age);
+        if (bucket < 0) {
+            return;
+        }
+        long[] ids = buckets[bucket];
+        int position = Arrays.binarySearch(ids, memberId);
+        if (position < 0) {
+            return;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, position);
+        System.arraycopy(ids, position + 1, copy, position, ids.length - position - 1);
+        publish(bucket, copy);
+    }
+
+    //age >= fromAge 버킷을 한 칸씩 위로. maxAge 버킷은 overflow 버킷에 합친다
+    void incrementAgesFrom(int fromAge) {
+        long[][] current = buckets;
+        int overflow = current.length - 1;
+        int start = Math.max(fromAge, 0);
+        if (start > overflow) {
+            return;
+        }
+        long[][] shifted = current.clone();
+        if (start < overflow) {
+            shifted[overflow] = merge(current[overflow - 1], current[overflow]);
+            for (int age = overflow - 1; age > start; age--) {
+                shifted[age] = current[age - 1];
+            }
+            shifted[start] = EMPTY;
+        }
+        buckets = shifted;
+    }
+
+    //적재용: age 별로 모은 id 를 정렬해서 한 번에 넣는다
+    void load(int age, long[] ids, int length) {
+        int bucket = bucketOf(age);
+        if (bucket < 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(ids, length);
+        Arrays.sort(sorted);
+        publish(bucket, sorted);
+    }
+
+    //음수면 -1, maxAge 보다 크면 overflow 버킷
+    int bucketOf(int age) {
+        return age < 0 ? -1 : Math.min(age, buckets.length - 1);
+    }
+
+    private void publish(int bucket, long[] ids) {
+        long[][] copy = buckets.clone();
+        copy[bucket] = ids;
+        buckets = copy;
+    }
+
+    private static long[] merge(long[] a, long[] b) {
+        long[] merged = new long[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            merged[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        while (i < a.length) {
+            merged[k++] = a[i++];
+        }
+        while (j < b.length) {
+            merged[k++] = b[j++];
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,167 @@
+package study.datajpa.readmodel;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * member_id -> (age, team_id) open addressing 해시 테이블 (linear probing).
+ * 쓰기는 한 번에 한 스레드만(MemberReadModel 이 동기화), 읽기는 락 없이 한다.
+ * <p>
+ * 새 슬롯은 값을 먼저 쓰고 key 를 release 로 써서, key 를 acquire 로 읽은 reader 는 값까지 본다.
+ * 지운 슬롯(DELETED)은 다른 key 에 재사용하지 않는다. 재사용하면 이전 key 를 읽은 reader 가 새 key 의 값을 볼 수 있다.
+ * 지운 슬롯은 다음 rehash 때 정리된다.
+ */
+final class MemberIdMap {
+
+    static final long NO_TEAM = 0;
+
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private volatile Table table;
+    private volatile int size;
+    //live + DELETED 슬롯 수 (writer 전용)
+    private int used;
+
+    MemberIdMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long memberId) {
+        Table t = table;
+        return t.find(memberId) >= 0;
+    }
+
+    //없으면 -1
+    int ageOf(long memberId) {
+        Table t = table;
+        int slot = t.find(memberId);
+        return slot < 0 ? -1 : t.ages.getAcquire(slot);
+    }
+
+    //없거나 팀이 없으면 NO_TEAM
+    long teamIdOf(long memberId) {
+        Table t = table;
+        int slot = t.find(memberId);
+        return slot < 0 ? NO_TEAM : t.teamIds.getAcquire(slot);
+    }
+
+    //이전 age, 없었으면 -1
+    int put(long memberId, int age, long teamId) {
+        Table t = table;
+        int mask = t.mask;
+        int i = index(memberId, mask);
+        while (true) {
+            long key = t.keys.get(i);
+            if (key == memberId) {
+                int previous = t.ages.get(i);
+                t.teamIds.setRelease(i, teamId);
+                t.ages.setRelease(i, age);
+                return previous;
+            }
+            if (key == EMPTY) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        t.teamIds.setRelease(i, teamId);
+        t.ages.setRelease(i, age);
+        t.keys.setRelease(i, memberId);
+        size++;
+        if (++used > t.threshold) {
+            rehash(capacityFor(size));
+        }
+        return -1;
+    }
+
+    //지운 member 의 age, 없었으면 -1
+    int remove(long memberId) {
+        Table t = table;
+        int slot = t.find(memberId);
+        if (slot < 0) {
+            return -1;
+        }
+        t.keys.setRelease(slot, DELETED);
+        size--;
+        return t.ages.get(slot);
+    }
+
+    //age >= fromAge 인 회원의 age 를 +1 (벌크 update)
+    void incrementAgesFrom(int fromAge) {
+        Table t = table;
+        for (int i = 0; i < t.keys.length(); i++) {
+            long key = t.keys.get(i);
+            if (key != EMPTY && key != DELETED) {
+                int age = t.ages.get(i);
+                if (age >= fromAge) {
+                    t.ages.setRelease(i, age + 1);
+                }
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        Table old = table;
+        Table fresh = new Table(capacity);
+        for (int i = 0; i < old.keys.length(); i++) {
+            long key = old.keys.get(i);
+            if (key != EMPTY && key != DELETED) {
+                int slot = index(key, fresh.mask);
+                while (fresh.keys.get(slot) != EMPTY) {
+                    slot = (slot + 1) & fresh.mask;
+                }
+                fresh.keys.set(slot, key);
+                fresh.ages.set(slot, old.ages.get(i));
+                fresh.teamIds.set(slot, old.teamIds.get(i));
+            }
+        }
+        used = size;
+        //volatile write 로 채워진 테이블을 reader 에게 공개
+        table = fresh;
+    }
+
+    private static int capacityFor(int size) {
+        int needed = (int) Math.ceil(Math.max(size, 16) / LOAD_FACTOR) + 1;
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicLongArray teamIds;
+        final AtomicIntegerArray ages;
+        final int mask;
+        final int threshold;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.teamIds = new AtomicLongArray(capacity);
+            this.ages = new AtomicIntegerArray(capacity);
+            this.mask = capacity - 1;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        int find(long memberId) {
+            int i = index(memberId, mask);
+            while (true) {
+                long key = keys.getAcquire(i);
+                if (key == memberId) {
+                    return i;
+                }
+                if (key == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package study.datajpa.readmodel;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * age, team 조회용 인메모리 읽기 모델: age -> 정렬된 member_id 배열, member_id -> (age, team_id).
+ * 읽기는 락 없이 하고 DB 를 조회하지 않는다.
+ * <p>
+ * 기동 후 스트리밍 스캔으로 만들고, 커밋된 변경만 반영한다 (엔티티 리스너, 벌크 훅 모두 AfterCommit 으로 호출).
+ * 그래서 쓰기 트랜잭션 안에서는 {@link #canServe(int)} 가 false 다. 자기 트랜잭션의 변경이 모델에 아직 없기 때문이다.
+ * 적재 중에 들어온 변경은 기록했다가 새 모델에 다시 적용한 뒤 교체한다.
+ * 벌크 age+1 은 다시 적용하면 두 번 더해질 수 있으므로, 그 경우에는 적재를 처음부터 다시 한다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ReadModelProperties.class)
+public class MemberReadModel implements MeterBinder {
+
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadModelProperties properties;
+    private final Object loadLock = new Object();
+
+    private volatile State state;
+
+    //적재 중에 들어온 변경 (this 로 동기화)
+    private List<Consumer<State>> pending;
+    private boolean incrementedDuringLoad;
+
+    public MemberReadModel(JdbcTemplate jdbcTemplate, ReadModelProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (properties.isEnabled()) {
+            load();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.read-model.reload-interval:PT30M}",
+            initialDelayString = "${datajpa.read-model.reload-interval:PT30M}")
+    public void scheduledReload() {
+        if (properties.isEnabled() && state != null) {
+            load();
+        }
+    }
+
+    //읽는 동안에는 이전 모델로 계속 응답한다
+    public int load() {
+        synchronized (loadLock) {
+            long start = System.currentTimeMillis();
+            while (true) {
+                synchronized (this) {
+                    pending = new ArrayList<>();
+                    incrementedDuringLoad = false;
+                }
+                State fresh = scan();
+                synchronized (this) {
+                    if (incrementedDuringLoad) {
+                        log.debug("bulk age update during read model load, scanning again");
+                        continue;
+                    }
+                    pending.forEach(change -> change.accept(fresh));
+                    pending = null;
+                    state = fresh;
+                }
+                int members = fresh.members.size();
+                log.info("member read model loaded: {} members in {} ms", members, System.currentTimeMillis() - start);
+                return members;
+            }
+        }
+    }
+
+    private State scan() {
+        State fresh = new State(properties.getMaxAge(), properties.getExpectedMembers());
+        //age 별 버킷 + overflow 버킷
+        long[][] idsByBucket = new long[properties.getMaxAge() + 2][];
+        int[] counts = new int[properties.getMaxAge() + 2];
+        JdbcTemplate scan = new JdbcTemplate(jdbcTemplate.getDataSource());
+        scan.setFetchSize(SCAN_FETCH_SIZE);
+        scan.query("select member_id, age, team_id from member", rs -> {
+            long memberId = rs.getLong(1);
+            int age = rs.getInt(2);
+            long teamId = rs.getLong(3);
+            fresh.members.put(memberId, age, rs.wasNull() ? MemberIdMap.NO_TEAM : teamId);
+            int bucket = fresh.ages.bucketOf(age);
+            if (bucket >= 0) {
+                long[] ids = idsByBucket[bucket];
+                if (ids == null) {
+                    ids = idsByBucket[bucket] = new long[16];
+                } else if (counts[bucket] == ids.length) {
+                    ids = idsByBucket[bucket] = Arrays.copyOf(ids, ids.length * 2);
+                }
+                ids[counts[bucket]++] = memberId;
+            }
+        });
+        for (int bucket = 0; bucket < idsByBucket.length; bucket++) {
+            if (idsByBucket[bucket] != null) {
+                fresh.ages.load(bucket, idsByBucket[bucket], counts[bucket]);
+            }
+        }
+        return fresh;
+    }
+
+    //--- 쓰기: 커밋 후에 호출한다 ---
+
+    public void memberSaved(long memberId, int age, Long teamId) {
+        apply(current -> {
+            int previous = current.members.put(memberId, age, teamId == null ? MemberIdMap.NO_TEAM : teamId);
+            if (previous != age) {
+                current.ages.remove(previous, memberId);
+                current.ages.add(age, memberId);
+            }
+        });
+    }
+
+    public void membersRemoved(List<Long> memberIds) {
+        apply(current -> {
+            for (Long memberId : memberIds) {
+                int age = current.members.remove(memberId);
+                current.ages.remove(age, memberId);
+            }
+        });
+    }
+
+    //update member set age = age + 1 where age >= fromAge
+    public synchronized void agesIncrementedFrom(int fromAge) {
+        if (pending != null) {
+            incrementedDuringLoad = true;
+        }
+        if (state != null) {
+            state.members.incrementAgesFrom(fromAge);
+            state.ages.incrementAgesFrom(fromAge);
+        }
+    }
+
+    private synchronized void apply(Consumer<State> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+        if (state != null) {
+            change.accept(state);
+        }
+    }
+
+    //--- 읽기: 락 없음 ---
+
+    public boolean isLoaded() {
+        return state != null;
+    }
+
+    //모델이 적재됐고 age 가 범위 안이며, 현재 스레드에 커밋 안 된 쓰기가 있을 수 없을 때
+    public boolean canServe(int age) {
+        State current = state;
+        return current != null && current.ages.covers(age)
+                && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    public int countByAge(int age) {
+        State current = state;
+        return current == null ? 0 : current.ages.count(age);
+    }
+
+    public long[] memberIdsByAge(int age, long offset, int limit, boolean descending) {
+        State current = state;
+        return current == null ? new long[0] : current.ages.ids(age, offset, limit, descending);
+    }
+
+    //모르는 회원이거나 팀이 없으면 null
+    public Long teamIdOf(long memberId) {
+        State current = state;
+        long teamId = current == null ? MemberIdMap.NO_TEAM : current.members.teamIdOf(memberId);
+        return teamId == MemberIdMap.NO_TEAM ? null : teamId;
+    }
+
+    //모르는 회원이면 -1
+    public int ageOf(long memberId) {
+        State current = state;
+        return current == null ? -1 : current.members.ageOf(memberId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("member.read.model.members", this, model -> model.state == null ? 0 : model.state.members.size())
+                .register(registry);
+    }
+
+    private static final class State {
+        final MemberIdMap members;
+        final AgeIndex ages;
+
+        State(int maxAge, int expectedMembers) {
+            this.members = new MemberIdMap(expectedMembers);
+            this.ages = new AgeIndex(maxAge);
+        }
+    }
+}
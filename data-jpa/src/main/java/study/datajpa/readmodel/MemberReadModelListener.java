@@ -0,0 +1,34 @@
+package study.datajpa.readmodel;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.support.AfterCommit;
+
+import java.util.List;
+
+//flush 시점의 값을 잡아 두고 커밋 후에 반영한다
+@Component
+@RequiredArgsConstructor
+public class MemberReadModelListener {
+
+    private final MemberReadModel memberReadModel;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Member member) {
+        long memberId = member.getId();
+        int age = member.getAge();
+        Long teamId = member.getTeamId();
+        AfterCommit.run(() -> memberReadModel.memberSaved(memberId, age, teamId));
+    }
+
+    @PostRemove
+    public void removed(Member member) {
+        List<Long> memberIds = List.of(member.getId());
+        AfterCommit.run(() -> memberReadModel.membersRemoved(memberIds));
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.readmodel;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.read-model")
+public class ReadModelProperties {
+
+    private boolean enabled = false;
+
+    //0..maxAge 만 age 별로 응답한다. 더 큰 age 는 overflow 버킷에 모아 두고 조회는 DB 로
+    private int maxAge = 200;
+
+    //리스너/벌크 훅을 거치지 않은 변경(직접 SQL 등)을 정리하기 위한 전체 재적재 주기
+    private Duration reloadInterval = Duration.ofMinutes(30);
+
+    private int expectedMembers = 100_000;
+}
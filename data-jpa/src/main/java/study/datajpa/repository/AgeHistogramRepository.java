@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.datajpa.entity.AgeHistogram;
+
+import java.util.List;
+
+public interface AgeHistogramRepository extends JpaRepository<AgeHistogram, Integer> {
+
+    List<AgeHistogram> findAllByOrderByAgeAsc();
+}
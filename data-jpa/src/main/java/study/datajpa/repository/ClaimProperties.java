@@ -0,0 +1,21 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.claim")
+public class ClaimProperties {
+
+    //SKIP LOCKED 를 지원하지 않는 DB 에서 잠긴 행을 기다리는 최대 시간
+    private Duration lockTimeout = Duration.ofSeconds(2);
+
+    //가져갈 행이 없을 때 워커가 쉬는 시간 (지수 증가, 최대 maxBackoff)
+    private Duration minBackoff = Duration.ofMillis(50);
+
+    private Duration maxBackoff = Duration.ofSeconds(5);
+}
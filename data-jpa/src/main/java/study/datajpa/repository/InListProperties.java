@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.in-list")
+public class InListProperties {
+
+    //in_clause_parameter_padding 과 맞추기 위해 2의 제곱수를 사용
+    private int chunkSize = 512;
+
+    private int parallelism = 4;
+}
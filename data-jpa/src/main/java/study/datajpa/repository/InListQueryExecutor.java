@@ -0,0 +1,121 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.shard.ShardContext;
+import study.datajpa.workload.WorkloadClass;
+import study.datajpa.workload.WorkloadContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * IN 절 파라미터가 많은 쿼리를 chunkSize 단위로 나눠 실행하고 결과를 합친다.
+ * 트랜잭션 안에서는 현재 EntityManager로 순서대로 실행하고(결과는 영속 상태),
+ * 트랜잭션 밖에서는 청크마다 워커 스레드의 읽기 전용 트랜잭션에서 병렬 실행한다(결과는 준영속 상태).
+ * 워커는 호출한 스레드의 샤드(ShardContext)와 workload(WorkloadContext)를 이어받아 같은 DataSource 로 간다.
+ */
+@Component
+@EnableConfigurationProperties(InListProperties.class)
+public class InListQueryExecutor implements DisposableBean {
+
+    private final EntityManager em;
+    private final TransactionTemplate readTemplate;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    public InListQueryExecutor(EntityManager em, PlatformTransactionManager transactionManager, InListProperties properties) {
+        this.em = em;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.chunkSize = properties.getChunkSize();
+        this.executor = Executors.newFixedThreadPool(properties.getParallelism());
+    }
+
+    public <K, T> List<T> execute(Collection<K> keys, BiFunction<EntityManager, List<K>, List<T>> query,
+                                  Function<T, K> keyOf, boolean preserveOrder) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinct.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<T> result;
+        if (distinct.size() <= chunkSize) {
+            result = new ArrayList<>(query.apply(em, distinct));
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            result = new ArrayList<>();
+            for (List<K> chunk : partition(distinct)) {
+                result.addAll(query.apply(em, chunk));
+            }
+        } else {
+            result = executeParallel(partition(distinct), query);
+        }
+
+        if (preserveOrder) {
+            Map<K, Integer> position = new HashMap<>();
+            for (int i = 0; i < distinct.size(); i++) {
+                position.put(distinct.get(i), i);
+            }
+            result.sort(Comparator.comparingInt(t -> position.getOrDefault(keyOf.apply(t), Integer.MAX_VALUE)));
+        }
+        return result;
+    }
+
+    private <K, T> List<T> executeParallel(List<List<K>> chunks, BiFunction<EntityManager, List<K>, List<T>> query) {
+        Integer shard = ShardContext.current();
+        WorkloadClass workload = WorkloadContext.current();
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (List<K> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> WorkloadContext.callAs(workload, () -> shard == null
+                    ? queryChunk(chunk, query)
+                    : ShardContext.callOn(shard, () -> queryChunk(chunk, query))), executor));
+        }
+
+        List<T> result = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                result.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    //공유 EntityManager 는 워커 스레드의 트랜잭션에 묶인다
+    private <K, T> List<T> queryChunk(List<K> chunk, BiFunction<EntityManager, List<K>, List<T>> query) {
+        return readTemplate.execute(status -> query.apply(em, chunk));
+    }
+
+    private <K> List<List<K>> partition(List<K> keys) {
+        List<List<K>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            chunks.add(keys.subList(from, Math.min(from + chunkSize, keys.size())));
+        }
+        return chunks;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
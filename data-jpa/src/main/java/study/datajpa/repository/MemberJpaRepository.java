@@ -4,7 +4,11 @@ import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.readmodel.MemberReadModel;
+import study.datajpa.stats.MemberAggregates;
+import study.datajpa.support.AfterCommit;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +17,8 @@ import java.util.Optional;
 public class MemberJpaRepository {
 
     private final EntityManager em;
+    private final MemberAggregates memberAggregates;
+    private final MemberReadModel memberReadModel;
 
     public Member save(Member member){
         em.persist(member);
@@ -63,15 +69,23 @@ public class MemberJpaRepository {
     }
 
     public Long totalCount(int age){
+        //읽기 모델이 있으면 DB 를 조회하지 않는다
+        if (memberReadModel.canServe(age)) {
+            return (long) memberReadModel.countByAge(age);
+        }
         return em.createQuery("select count(m) from Member m where m.age =:age",Long.class)
                 .setParameter("age",age)
                 .getSingleResult();
     }
 
     public int bulkAgePlus(int age){
-        return em.createQuery("update Member m set m.age = m.age+1 where m.age >= :age")
+        int count = em.createQuery("update Member m set m.age = m.age+1, m.lastModifiedDate = :modifiedAt where m.age >= :age")
                 .setParameter("age",age)
+                .setParameter("modifiedAt", LocalDateTime.now())
                 .executeUpdate();
+        memberAggregates.rebuildAgesFrom(age);
+        AfterCommit.run(() -> memberReadModel.agesIncrementedFrom(age));
+        return count;
     }
 }
 
@@ -1,19 +1,19 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member,Long>, MemberRepositoryCustom, JpaSpecificationExecutor {
 
@@ -25,29 +25,38 @@ public interface MemberRepository extends JpaRepository<Member,Long>, MemberRepo
     @Query("select m from Member m where m.username= :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
+    @Workload(WorkloadClass.REPORTING)
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") Collection<String> names);
-
     List<Member> findListByUsername(String username);
-    Member findMemberByUsername(String username);
-    Optional<Member> findOptionalByUsername(String username);
-
-    Page<Member> findByAge(int age, Pageable pageable);
 
     @Query(value = "select m from Member m left join m.team t", countQuery = "select count(m) from Member m")
     Page<Member> findqUERYByAge(int age, Pageable pageable);
 
-    Slice<Member> findSliceByAge(int age, Pageable pageable);
+    //벌크 연산은 auditing, 집계 리스너를 거치지 않으므로 lastModifiedDate와 age_histogram을 직접 갱신한다
+    @Transactional
+    default int bulkAgePlus(int age){
+        int count = bulkAgePlus(age, LocalDateTime.now());
+        rebuildAgeHistogramFrom(age);
+        incrementReadModelAgesFrom(age);
+        return count;
+    }
 
     @Modifying(clearAutomatically = true) //이걸 써야지 .excuteUpdate()호출, 벌크 연산은 직접 쿼리 날림
-    @Query("update Member m set m.age = m.age+1 where m.age >= :age")
-    int bulkAgePlus(@Param("age") int age);
+    @Query("update Member m set m.age = m.age+1, m.lastModifiedDate = :modifiedAt where m.age >= :age")
+    int bulkAgePlus(@Param("age") int age, @Param("modifiedAt") LocalDateTime modifiedAt);
+
+    //(lastModifiedDate, id) keyset - idx_member_last_modified 인덱스를 타고 since 이후 변경분만 읽는다
+    @Query("select m from Member m " +
+            "where (m.lastModifiedDate > :since or (m.lastModifiedDate = :since and m.id > :lastId)) " +
+            "and m.lastModifiedDate <= :until " +
+            "order by m.lastModifiedDate, m.id")
+    List<Member> findChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                  @Param("until") LocalDateTime until, Pageable pageable);
 
     @Query("select m from Member m left join fetch m.team")
     List<Member> findMemberFetchJoin();
@@ -67,14 +76,12 @@ public interface MemberRepository extends JpaRepository<Member,Long>, MemberRepo
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly",value = "true"))
     Member findReadOnlyByUsername(String username);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    List<Member> findLockByUsername(String username);
-
     <T> List<T> findProjectionsByUsername(String username,Class<T> type);
 
     @Query(value = "select age from member where username = ?",nativeQuery = true)
     int findByNativeQuery(String username);
 
+    @Workload(WorkloadClass.REPORTING)
     @Query(value = "select m.member_id as id,m.username,m.age,t.name as teamName " +
      "from member m left join team t on m.team_id = t.team_id",
             countQuery = "select count(*) from member"
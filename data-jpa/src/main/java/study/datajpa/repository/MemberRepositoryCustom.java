@@ -1,9 +1,73 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import study.datajpa.entity.Member;
+import study.datajpa.search.SearchMode;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface MemberRepositoryCustom {
+    @Workload(WorkloadClass.REPORTING)
     List<Member> findMemberCustom();
+
+    // username in :names - 파라미터가 많으면 청크로 나눠서 실행 (InListQueryExecutor)
+    List<Member> findByNames(Collection<String> names);
+
+    List<Member> findByNames(Collection<String> names, boolean preserveOrder);
+
+    // StatelessSession 기반 읽기 전용 조회 - 1차 캐시, 변경 감지, 스냅샷 없음 (리포트/배치용)
+    @Workload(WorkloadClass.REPORTING)
+    List<Member> findAllMembersStateless();
+
+    @Workload(WorkloadClass.REPORTING)
+    List<String> findUsernameListStateless();
+
+    void streamMembersStateless(Consumer<Member> consumer);
+
+    // 벌크 연산 후 age >= fromAge 구간의 age_histogram 재계산
+    void rebuildAgeHistogramFrom(int fromAge);
+
+    // 벌크 age+1 을 커밋 후 인메모리 읽기 모델(MemberReadModel)에 반영
+    void incrementReadModelAgesFrom(int fromAge);
+
+    // 읽기 모델이 켜져 있으면 count 는 모델에서, 정렬이 없거나 id 정렬이면 페이지 id 도 모델에서 가져온다
+    Page<Member> findByAge(int age, Pageable pageable);
+
+    Slice<Member> findSliceByAge(int age, Pageable pageable);
+
+    // 전문 색인(username, team.name) 검색, 결과는 색인의 점수 순서
+    List<Member> searchMembers(String text, SearchMode mode, int limit);
+
+    // spec 에 맞는 회원 중 다른 트랜잭션이 잠그지 않은 것을 최대 limit 개 잠그고 가져온다 (FOR UPDATE SKIP LOCKED)
+    // 트랜잭션 안에서 호출해야 하고, 잠금은 커밋/롤백까지 유지된다
+    List<Member> claim(Specification<Member> spec, int limit);
+
+    // username 이 같은 회원을 비관적 쓰기 잠금으로 조회. 잠긴 행은 datajpa.claim.lock-timeout 만큼만 기다린다
+    List<Member> findLockByUsername(String username);
+
+    // 아카이브 회원(Member.isArchived())은 읽기 전용이라 저장을 거절한다. merge 하면 member 에 같은 id 의 행이 새로 생긴다
+    <S extends Member> S save(S member);
+
+    <S extends Member> S saveAndFlush(S member);
+
+    <S extends Member> List<S> saveAll(Iterable<S> members);
+
+    // hot 테이블(member)에 없으면 member_archive 에서 찾는다. 아카이브 회원은 Member.isArchived() 인 준영속 엔티티
+    Optional<Member> findById(Long id);
+
+    // username Bloom filter 가 없다고 하면 DB 를 조회하지 않는다 (아카이브 포함)
+    // single-writer 가 아니면 쓰기 트랜잭션 안에서는 필터와 관계없이 DB 를 조회한다 (UsernameFilter 참고)
+    Optional<Member> findOptionalByUsername(String username);
+
+    Member findMemberByUsername(String username);
+
+    boolean existsByUsername(String username);
 }
@@ -1,21 +1,363 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.LockOptions;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.MemberArchive;
+import study.datajpa.entity.Team;
+import study.datajpa.readmodel.MemberReadModel;
+import study.datajpa.search.MemberSearchIndex;
+import study.datajpa.search.SearchMode;
+import study.datajpa.stats.MemberAggregates;
+import study.datajpa.support.AfterCommit;
+import study.datajpa.username.UsernameFilter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
-    private final EntityManager em;
+    private static final int STREAM_FETCH_SIZE = 500;
 
+    private final EntityManager em;
+    private final MemberSearchIndex searchIndex;
+    private final InListQueryExecutor inListQueryExecutor;
+    private final MemberAggregates memberAggregates;
+    private final ClaimProperties claimProperties;
+    private final UsernameFilter usernameFilter;
+    private final MemberReadModel memberReadModel;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    @Override
+    public List<Member> findByNames(Collection<String> names) {
+        return findByNames(names, false);
+    }
+
+    @Override
+    public List<Member> findByNames(Collection<String> names, boolean preserveOrder) {
+        return inListQueryExecutor.execute(names, (entityManager, chunk) -> entityManager
+                        .createQuery("select m from Member m where m.username in :names", Member.class)
+                        .setParameter("names", chunk)
+                        .getResultList(),
+                Member::getUsername, preserveOrder);
+    }
+
+    @Override
+    public List<Member> findAllMembersStateless() {
+        try (StatelessSession session = openStatelessSession()) {
+            //stateless session은 지연 로딩이 안되므로 team은 fetch join으로 같이 가져온다
+            return session.createQuery("select m from Member m left join fetch m.team", Member.class)
+                    .getResultList();
+        }
+    }
+
+    @Override
+    public List<String> findUsernameListStateless() {
+        try (StatelessSession session = openStatelessSession()) {
+            return session.createQuery("select m.username from Member m", String.class)
+                    .getResultList();
+        }
+    }
+
+    @Override
+    public void streamMembersStateless(Consumer<Member> consumer) {
+        try (StatelessSession session = openStatelessSession();
+             ScrollableResults<Member> results = session
+                     .createQuery("select m from Member m left join fetch m.team", Member.class)
+                     .setFetchSize(STREAM_FETCH_SIZE)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                consumer.accept(results.get());
+            }
+        }
+    }
+
+    @Override
+    public void rebuildAgeHistogramFrom(int fromAge) {
+        memberAggregates.rebuildAgesFrom(fromAge);
+    }
+
+    @Override
+    public void incrementReadModelAgesFrom(int fromAge) {
+        AfterCommit.run(() -> memberReadModel.agesIncrementedFrom(fromAge));
+    }
+
+    @Override
+    public Page<Member> findByAge(int age, Pageable pageable) {
+        List<Member> content = findAgePage(age, pageable, pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+        if (memberReadModel.canServe(age)) {
+            return new PageImpl<>(content, pageable, memberReadModel.countByAge(age));
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> em
+                .createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                .setParameter("age", age)
+                .getSingleResult());
+    }
+
+    @Override
+    public Slice<Member> findSliceByAge(int age, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findAgePage(age, pageable, Integer.MAX_VALUE), pageable, false);
+        }
+        int size = pageable.getPageSize();
+        List<Member> content = findAgePage(age, pageable, size + 1);
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+    }
+
+    //정렬이 없거나 id 정렬이면 페이지의 id 를 읽기 모델에서 잘라 PK 로만 조회한다
+    private List<Member> findAgePage(int age, Pageable pageable, int limit) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        Boolean descending = idOrder(pageable.getSort());
+        if (descending != null && memberReadModel.canServe(age)) {
+            return findByIdsInOrder(memberReadModel.memberIdsByAge(age, offset, limit, descending));
+        }
+        TypedQuery<Member> query = em
+                .createQuery(QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m"), Member.class)
+                .setParameter("age", age)
+                .setFirstResult((int) offset);
+        if (limit != Integer.MAX_VALUE) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    //정렬 없음 -> false, id 하나로 정렬 -> 내림차순 여부, 그 밖의 정렬 -> null
+    private static Boolean idOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return false;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() == 1 && orders.get(0).getProperty().equals("id")) {
+            return orders.get(0).isDescending();
+        }
+        return null;
+    }
+
+    private List<Member> findByIdsInOrder(long[] ids) {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        Map<Long, Member> byId = new HashMap<>();
+        em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                .setParameter("ids", Arrays.stream(ids).boxed().toList())
+                .getResultList()
+                .forEach(member -> byId.put(member.getId(), member));
+        //모델과 DB 사이에 지워진 회원은 빠진다
+        List<Member> members = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Member member = byId.get(id);
+            if (member != null) {
+                members.add(member);
+            }
+        }
+        return members;
+    }
+
+    @Override
+    public List<Member> searchMembers(String text, SearchMode mode, int limit) {
+        List<Long> ids = searchIndex.search(text, mode, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Member> members = em.createQuery("select m from Member m left join fetch m.team where m.id in :ids", Member.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        members.sort(Comparator.comparingInt(m -> ids.indexOf(m.getId())));
+        return members;
+    }
+
+    private StatelessSession openStatelessSession() {
+        return em.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .openStatelessSession();
+    }
+
+    @Override
+    public List<Member> claim(Specification<Member> spec, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> query = cb.createQuery(Member.class);
+        Root<Member> root = query.from(Member.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return em.createQuery(query)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", claimLockTimeout())
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public List<Member> findLockByUsername(String username) {
+        return em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", (int) claimProperties.getLockTimeout().toMillis())
+                .getResultList();
+    }
+
+    //SKIP LOCKED 를 못 쓰면 잠긴 행을 lockTimeout 만큼만 기다린다
+    private int claimLockTimeout() {
+        boolean skipLocked = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().supportsSkipLocked();
+        return skipLocked ? LockOptions.SKIP_LOCKED : (int) claimProperties.getLockTimeout().toMillis();
+    }
+
+    //SimpleJpaRepository.save 와 같지만 아카이브 회원은 거절한다
+    @Override
+    @Transactional
+    public <S extends Member> S save(S member) {
+        Assert.notNull(member, "member must not be null");
+        Assert.isTrue(!member.isArchived(), () -> "archived member " + member.getId() + " is read-only");
+        JpaEntityInformation<Member, ?> entityInformation = JpaEntityInformationSupport.getEntityInformation(Member.class, em);
+        if (entityInformation.isNew(member)) {
+            em.persist(member);
+            return member;
+        }
+        return em.merge(member);
+    }
+
+    @Override
+    @Transactional
+    public <S extends Member> S saveAndFlush(S member) {
+        S saved = save(member);
+        em.flush();
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public <S extends Member> List<S> saveAll(Iterable<S> members) {
+        Assert.notNull(members, "members must not be null");
+        List<S> result = new ArrayList<>();
+        for (S member : members) {
+            result.add(save(member));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Member> findById(Long id) {
+        Member member = em.find(Member.class, id);
+        if (member != null) {
+            return Optional.of(member);
+        }
+        return Optional.ofNullable(em.find(MemberArchive.class, id)).map(this::restore);
+    }
+
+    @Override
+    public Optional<Member> findOptionalByUsername(String username) {
+        UsernameFilter.Answer answer = usernameFilter.check(username);
+        if (filterRulesOut(answer)) {
+            return Optional.empty();
+        }
+        List<Member> members = em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .getResultList();
+        if (members.isEmpty()) {
+            members = em.createQuery("select a from MemberArchive a where a.username = :username", MemberArchive.class)
+                    .setParameter("username", username)
+                    .getResultStream()
+                    .map(this::restore)
+                    .toList();
+        }
+        if (members.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, members.size());
+        }
+        if (members.isEmpty() && answer == UsernameFilter.Answer.MAYBE) {
+            usernameFilter.falsePositive();
+        }
+        return members.stream().findFirst();
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        UsernameFilter.Answer answer = usernameFilter.check(username);
+        if (filterRulesOut(answer)) {
+            return false;
+        }
+        boolean exists = !em.createQuery("select m.id from Member m where m.username = :username", Long.class)
+                .setParameter("username", username)
+                .setMaxResults(1)
+                .getResultList().isEmpty()
+                || !em.createQuery("select a.id from MemberArchive a where a.username = :username", Long.class)
+                .setParameter("username", username)
+                .setMaxResults(1)
+                .getResultList().isEmpty();
+        if (!exists && answer == UsernameFilter.Answer.MAYBE) {
+            usernameFilter.falsePositive();
+        }
+        return exists;
+    }
+
+    @Override
+    public Member findMemberByUsername(String username) {
+        return findOptionalByUsername(username).orElse(null);
+    }
+
+    private boolean filterRulesOut(UsernameFilter.Answer answer) {
+        if (answer != UsernameFilter.Answer.ABSENT) {
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return true;
+        }
+        //다른 인스턴스/직접 SQL 로 들어온 username 은 reload 전까지 필터에 없다. 쓰기를 가르는 확인은 DB 로 한다
+        if (!usernameFilter.isSingleWriter() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        //flush 전의 username 변경은 아직 필터에 없으므로 쿼리(auto flush)로 확인한다
+        return !em.unwrap(Session.class).isDirty();
+    }
+
+    private Member restore(MemberArchive archive) {
+        Team team = archive.getTeamId() == null ? null : em.getReference(Team.class, archive.getTeamId());
+        return archive.toMember(team);
+    }
 }
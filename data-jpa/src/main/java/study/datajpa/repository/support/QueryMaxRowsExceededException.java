@@ -0,0 +1,11 @@
+package study.datajpa.repository.support;
+
+import org.springframework.dao.DataRetrievalFailureException;
+
+//결과가 정책의 maxRows 를 넘었다. 잘린 결과를 돌려주지 않고 실패시킨다
+public class QueryMaxRowsExceededException extends DataRetrievalFailureException {
+
+    public QueryMaxRowsExceededException(String method, int maxRows) {
+        super(method + " returned more than " + maxRows + " rows (datajpa.query-policy max-rows)");
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.PatternMatchUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * application.yml 의 datajpa.query-policy 를 리포지토리 메서드 이름(RepositoryMethodContext)별 정책으로 풀어서 캐시한다.
+ * 정책 위반(타임아웃으로 취소, maxRows 초과)은 repository.query.policy.violations 카운터로 남긴다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(QueryPolicyProperties.class)
+public class QueryPolicies {
+
+    private final QueryPolicyProperties properties;
+    //DataSource 후처리 시점에 MeterRegistry 를 일찍 만들지 않도록 지연 조회
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, QueryPolicy> cache = new ConcurrentHashMap<>();
+
+    public QueryPolicies(QueryPolicyProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public QueryPolicy resolve(String method) {
+        if (!properties.isEnabled() || method == null) {
+            return QueryPolicy.NONE;
+        }
+        return cache.computeIfAbsent(method, this::build);
+    }
+
+    public void violation(String method, String type) {
+        log.warn("query policy violation: method={}, type={}", method, type);
+        meterRegistry.ifAvailable(registry -> registry.counter("repository.query.policy.violations",
+                "method", method, "type", type).increment());
+    }
+
+    private QueryPolicy build(String method) {
+        QueryPolicy policy = QueryPolicy.NONE.merge(properties.getDefaults());
+        for (QueryPolicyProperties.Rule rule : properties.getRules()) {
+            if (PatternMatchUtils.simpleMatch(rule.getPattern(), method)) {
+                return policy.merge(rule);
+            }
+        }
+        return policy;
+    }
+}
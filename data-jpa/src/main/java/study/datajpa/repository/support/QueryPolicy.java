@@ -0,0 +1,25 @@
+package study.datajpa.repository.support;
+
+import java.time.Duration;
+
+//null 인 항목은 적용하지 않는다
+public record QueryPolicy(Duration timeout, Integer fetchSize, Integer maxRows, boolean readOnly) {
+
+    public static final QueryPolicy NONE = new QueryPolicy(null, null, null, false);
+
+    QueryPolicy merge(QueryPolicyProperties.Rule rule) {
+        return new QueryPolicy(
+                rule.getTimeout() != null ? rule.getTimeout() : timeout,
+                rule.getFetchSize() != null ? rule.getFetchSize() : fetchSize,
+                rule.getMaxRows() != null ? rule.getMaxRows() : maxRows,
+                rule.getReadOnly() != null ? rule.getReadOnly() : readOnly);
+    }
+
+    //JDBC setQueryTimeout 값 (0 = 제한 없음)
+    public int timeoutSeconds() {
+        if (timeout == null || timeout.isZero()) {
+            return 0;
+        }
+        return (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.repository.support;
+
+import jakarta.persistence.EntityManager;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.Session;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * JPA 계층 정책: readOnly 면 호출 동안 세션 기본값을 read-only 로 (스냅샷/변경 감지 없이 로딩),
+ * statement 는 maxRows + 1 행까지 읽으므로 결과가 maxRows 를 넘으면 위반으로 기록하고
+ * 잘린 결과 대신 {@link QueryMaxRowsExceededException} 을 던진다.
+ * 타임아웃, fetch size, max rows 자체는 JDBC 계층(QueryPolicyListener)에서 statement 에 적용한다.
+ */
+public class QueryPolicyInterceptor implements MethodInterceptor {
+
+    private final QueryPolicies policies;
+    private final EntityManager em;
+
+    public QueryPolicyInterceptor(QueryPolicies policies, EntityManager em) {
+        this.policies = policies;
+        this.em = em;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = RepositoryMethodContext.current();
+        QueryPolicy policy = policies.resolve(method);
+        if (policy == QueryPolicy.NONE) {
+            return invocation.proceed();
+        }
+
+        Object result;
+        //트랜잭션 밖에서는 호출마다 버려지는 EntityManager 라 의미가 없다
+        if (policy.readOnly() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            Session session = em.unwrap(Session.class);
+            boolean previous = session.isDefaultReadOnly();
+            session.setDefaultReadOnly(true);
+            try {
+                result = invocation.proceed();
+            } finally {
+                session.setDefaultReadOnly(previous);
+            }
+        } else {
+            result = invocation.proceed();
+        }
+
+        if (policy.maxRows() != null && size(result) > policy.maxRows()) {
+            policies.violation(method, "max-rows");
+            throw new QueryMaxRowsExceededException(method, policy.maxRows());
+        }
+        return result;
+    }
+
+    private static int size(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        return 0;
+    }
+}
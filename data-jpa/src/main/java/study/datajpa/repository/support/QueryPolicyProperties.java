@@ -0,0 +1,40 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.query-policy")
+public class QueryPolicyProperties {
+
+    private boolean enabled = false;
+
+    //모든 리포지토리 메서드에 적용, rule 에서 지정한 항목만 덮어쓴다
+    private Rule defaults = new Rule();
+
+    //pattern 은 "리포지토리.메서드" 에 대한 * 패턴 (예: MemberRepository.findAll*), 처음 맞는 rule 하나만 적용
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        private String pattern;
+
+        //JDBC 는 초 단위이므로 올림해서 적용된다
+        private Duration timeout;
+
+        private Integer fetchSize;
+
+        //넘으면 QueryMaxRowsExceededException (잘린 결과를 돌려주지 않는다)
+        private Integer maxRows;
+
+        private Boolean readOnly;
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.repository.support;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 현재 스레드에서 실행 중인 리포지토리 메서드 이름 (예: MemberRepository.findByNativeProjection).
+ * SQL 로그 등 JDBC 계층에서 호출한 메서드를 알기 위해 사용한다.
+ */
+public final class RepositoryMethodContext {
+
+    private static final ThreadLocal<Deque<String>> METHODS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private RepositoryMethodContext() {
+    }
+
+    //중첩 호출(리포지토리 안에서 다른 리포지토리 호출)이면 가장 바깥 메서드
+    public static String current() {
+        return METHODS.get().peekLast();
+    }
+
+    static void push(String method) {
+        METHODS.get().push(method);
+    }
+
+    static void pop() {
+        Deque<String> methods = METHODS.get();
+        methods.pop();
+        if (methods.isEmpty()) {
+            METHODS.remove();
+        }
+    }
+}
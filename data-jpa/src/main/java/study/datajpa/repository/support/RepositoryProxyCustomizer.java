@@ -0,0 +1,41 @@
+package study.datajpa.repository.support;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import study.datajpa.jfr.JfrRepositoryInterceptor;
+
+/**
+ * 스프링 데이터 리포지토리 프록시에 공통 인터셉터를 추가한다.
+ */
+@Component
+public class RepositoryProxyCustomizer implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryPolicies> queryPolicies;
+    private final ObjectProvider<EntityManager> entityManager;
+
+    public RepositoryProxyCustomizer(ObjectProvider<QueryPolicies> queryPolicies, ObjectProvider<EntityManager> entityManager) {
+        this.queryPolicies = queryPolicies;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        //JFR 이벤트는 트랜잭션 인터셉터 바깥에서 재서 커밋(flush) 시간까지 포함한다
+                        proxyFactory.addAdvice(0, new JfrRepositoryInterceptor(repositoryInformation.getRepositoryInterface()));
+                        //메서드 이름 컨텍스트가 바깥, 정책 인터셉터가 안쪽
+                        proxyFactory.addAdvice(new RepositoryMethodContextInterceptor(repositoryInformation.getRepositoryInterface()));
+                        QueryPolicies policies = queryPolicies.getObject();
+                        if (policies.isEnabled()) {
+                            proxyFactory.addAdvice(new QueryPolicyInterceptor(policies, entityManager.getObject()));
+                        }
+                    }));
+        }
+        return bean;
+    }
+}
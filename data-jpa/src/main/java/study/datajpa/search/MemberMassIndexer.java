@@ -0,0 +1,57 @@
+package study.datajpa.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 색인 전체를 DB에서 다시 만든다. StatelessSession 스트림으로 읽어서 영속성 컨텍스트를 쓰지 않는다.
+ */
+@Slf4j
+@Component
+@Workload(WorkloadClass.BATCH)
+@RequiredArgsConstructor
+public class MemberMassIndexer {
+
+    private final MemberSearchIndex index;
+    private final MemberRepository memberRepository;
+    private final MemberSearchProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    public long rebuild() {
+        long start = System.currentTimeMillis();
+        long[] count = {0};
+        try {
+            index.deleteAll();
+            memberRepository.streamMembersStateless(member -> {
+                try {
+                    index.put(member.getId(), member.getUsername(),
+                            member.getTeam() == null ? null : member.getTeam().getId(),
+                            member.getTeam() == null ? null : member.getTeam().getName());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+            index.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("member search index rebuilt: {} members in {} ms", count[0], System.currentTimeMillis() - start);
+        return count[0];
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.search;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(MemberSearchProperties.class)
+public class MemberSearchConfig {
+
+    @Bean
+    public MemberSearchIndex memberSearchIndex(MemberSearchProperties properties) throws IOException {
+        if (StringUtils.hasText(properties.getIndexDir())) {
+            return new MemberSearchIndex(Path.of(properties.getIndexDir()), false);
+        }
+        //테스트처럼 컨텍스트가 여러 개 떠도 각자 자기 디렉터리의 write.lock 을 잡는다
+        return new MemberSearchIndex(Files.createTempDirectory("member-index-"), true);
+    }
+}
@@ -0,0 +1,232 @@
+package study.datajpa.search;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Member.username, Team.name 에 대한 내장 Lucene 색인.
+ * 문서 하나가 회원 하나이고 팀 이름은 비정규화해서 같이 저장한다.
+ */
+public class MemberSearchIndex implements Closeable {
+
+    private static final String ID = "id";
+    private static final String USERNAME = "username";
+    private static final String USERNAME_STORED = "username_stored";
+    private static final String TEAM_ID = "team_id";
+    private static final String TEAM_NAME = "team_name";
+    private static final String TEAM_NAME_STORED = "team_name_stored";
+
+    private final Path path;
+    private final boolean deleteOnClose;
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public MemberSearchIndex(Path path, boolean deleteOnClose) throws IOException {
+        this.path = path;
+        this.deleteOnClose = deleteOnClose;
+        this.directory = FSDirectory.open(path);
+        //검색어 단위가 아닌 값 전체에 대해 prefix/fuzzy/contains 검색을 하므로 StringField(토큰화 X)만 사용한다
+        this.writer = new IndexWriter(directory, new IndexWriterConfig());
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void index(Long memberId, String username, Long teamId, String teamName) {
+        try {
+            put(memberId, username, teamId, teamName);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 검색 결과 갱신(refresh) 없이 문서만 추가한다. 대량 색인 후 {@link #commit()} 으로 한번에 반영.
+     */
+    public void put(Long memberId, String username, Long teamId, String teamName) throws IOException {
+        writer.updateDocument(new Term(ID, memberId.toString()), toDocument(memberId, username, teamId, teamName));
+    }
+
+    public void delete(Long memberId) {
+        try {
+            writer.deleteDocuments(new Term(ID, memberId.toString()));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void renameTeam(Long teamId, String teamName) {
+        try {
+            searcherManager.maybeRefreshBlocking();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TermQuery byTeam = new TermQuery(new Term(TEAM_ID, teamId.toString()));
+                int count = searcher.count(byTeam);
+                if (count == 0) {
+                    return;
+                }
+                for (ScoreDoc scoreDoc : searcher.search(byTeam, count).scoreDocs) {
+                    Document stored = searcher.storedFields().document(scoreDoc.doc);
+                    Long memberId = Long.valueOf(stored.get(ID));
+                    writer.updateDocument(new Term(ID, memberId.toString()),
+                            toDocument(memberId, stored.get(USERNAME_STORED), teamId, teamName));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 이미 색인된 같은 팀 회원 문서에서 팀 이름을 찾는다. 지연 로딩 프록시를 초기화하지 않기 위해 사용.
+     */
+    public String findTeamName(Long teamId) {
+        List<Document> documents = searchDocuments(new TermQuery(new Term(TEAM_ID, teamId.toString())), 1);
+        return documents.isEmpty() ? null : documents.get(0).get(TEAM_NAME_STORED);
+    }
+
+    public List<Long> search(String text, SearchMode mode, int limit) {
+        String value = text.toLowerCase(Locale.ROOT);
+        Query query = new BooleanQuery.Builder()
+                .add(fieldQuery(USERNAME, value, mode), BooleanClause.Occur.SHOULD)
+                .add(fieldQuery(TEAM_NAME, value, mode), BooleanClause.Occur.SHOULD)
+                .build();
+
+        List<Long> ids = new ArrayList<>();
+        for (Document document : searchDocuments(query, limit)) {
+            ids.add(Long.valueOf(document.get(ID)));
+        }
+        return ids;
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    public void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * 리스너가 넣은 변경은 refresh 만 되고 커밋되지 않으므로 주기적으로 디스크에 반영한다.
+     */
+    @Scheduled(fixedDelayString = "${datajpa.search.commit-interval:PT5S}",
+            initialDelayString = "${datajpa.search.commit-interval:PT5S}")
+    public void commitPending() {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        //commitOnClose 기본값(true)으로 남은 변경도 커밋된다
+        writer.close();
+        directory.close();
+        if (deleteOnClose) {
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private List<Document> searchDocuments(Query query, int limit) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                List<Document> documents = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    documents.add(searcher.storedFields().document(scoreDoc.doc));
+                }
+                return documents;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Query fieldQuery(String field, String value, SearchMode mode) {
+        return switch (mode) {
+            case PREFIX -> new PrefixQuery(new Term(field, value));
+            case FUZZY -> new FuzzyQuery(new Term(field, value));
+            case CONTAINS -> new WildcardQuery(new Term(field, "*" + escapeWildcard(value) + "*"));
+        };
+    }
+
+    private static String escapeWildcard(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '*' || c == '?' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static Document toDocument(Long memberId, String username, Long teamId, String teamName) {
+        Document document = new Document();
+        document.add(new StringField(ID, memberId.toString(), Field.Store.YES));
+        if (username != null) {
+            document.add(new StringField(USERNAME, username.toLowerCase(Locale.ROOT), Field.Store.NO));
+            document.add(new StoredField(USERNAME_STORED, username));
+        }
+        if (teamId != null) {
+            document.add(new StringField(TEAM_ID, teamId.toString(), Field.Store.YES));
+        }
+        if (teamName != null) {
+            document.add(new StringField(TEAM_NAME, teamName.toLowerCase(Locale.ROOT), Field.Store.NO));
+            document.add(new StoredField(TEAM_NAME_STORED, teamName));
+        }
+        return document;
+    }
+}
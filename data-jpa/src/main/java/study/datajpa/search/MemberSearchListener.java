@@ -0,0 +1,38 @@
+package study.datajpa.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.AfterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class MemberSearchListener {
+
+    private final MemberSearchIndex index;
+
+    @PostPersist
+    @PostUpdate
+    public void index(Member member) {
+        Long memberId = member.getId();
+        String username = member.getUsername();
+        Team team = member.getTeam();
+        Long teamId = team == null ? null : team.getId();
+        //flush 도중에 지연 로딩을 일으키지 않도록 초기화된 팀만 이름을 읽는다
+        String teamName = team != null && Hibernate.isInitialized(team) ? team.getName() : null;
+
+        AfterCommit.run(() -> index.index(memberId, username, teamId,
+                teamName != null || teamId == null ? teamName : index.findTeamName(teamId)));
+    }
+
+    @PostRemove
+    public void remove(Member member) {
+        Long memberId = member.getId();
+        AfterCommit.run(() -> index.delete(memberId));
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.search")
+public class MemberSearchProperties {
+
+    //비어 있으면 컨텍스트마다 임시 디렉터리를 만들고 종료 시 지운다 (디렉터리 하나에 IndexWriter 는 하나만 열 수 있다)
+    private String indexDir;
+
+    //ddl-auto: create 로 DB가 매번 새로 만들어지므로 기본은 기동 시 전체 색인
+    private boolean rebuildOnStartup = true;
+
+    private int maxResults = 100;
+
+    //커밋 전 변경은 검색에는 보이지만 디스크에는 없다. 이 주기로 커밋해서 장애 시 잃는 범위를 제한
+    private Duration commitInterval = Duration.ofSeconds(5);
+}
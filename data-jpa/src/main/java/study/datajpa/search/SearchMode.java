@@ -0,0 +1,5 @@
+package study.datajpa.search;
+
+public enum SearchMode {
+    PREFIX, FUZZY, CONTAINS
+}
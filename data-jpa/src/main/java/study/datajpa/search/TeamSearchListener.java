@@ -0,0 +1,21 @@
+package study.datajpa.search;
+
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Team;
+import study.datajpa.support.AfterCommit;
+
+@Component
+@RequiredArgsConstructor
+public class TeamSearchListener {
+
+    private final MemberSearchIndex index;
+
+    @PostUpdate
+    public void rename(Team team) {
+        Long teamId = team.getId();
+        String name = team.getName();
+        AfterCommit.run(() -> index.renameTeam(teamId, name));
+    }
+}
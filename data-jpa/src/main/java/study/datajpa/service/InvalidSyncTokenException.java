@@ -0,0 +1,8 @@
+package study.datajpa.service;
+
+public class InvalidSyncTokenException extends IllegalArgumentException {
+
+    public InvalidSyncTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
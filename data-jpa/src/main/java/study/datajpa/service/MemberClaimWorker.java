@@ -0,0 +1,83 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.ClaimProperties;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * 여러 워커가 같은 backlog 를 서로 기다리지 않고 나눠 처리한다.
+ * 트랜잭션마다 잠기지 않은 회원을 batchSize 만큼 claim 해서 처리하고 커밋한다.
+ * 가져갈 게 없거나 잠금 경합이 나면 지수 backoff(+jitter) 후 다시 시도한다.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(ClaimProperties.class)
+public class MemberClaimWorker {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long minBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public MemberClaimWorker(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                             ClaimProperties properties) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minBackoffNanos = properties.getMinBackoff().toNanos();
+        this.maxBackoffNanos = properties.getMaxBackoff().toNanos();
+    }
+
+    //한 트랜잭션 분량만 처리하고 처리한 건수를 돌려준다
+    public int claimAndProcess(Specification<Member> spec, int batchSize, Consumer<Member> processor) {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<Member> claimed = memberRepository.claim(spec, batchSize);
+            claimed.forEach(processor);
+            return claimed.size();
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    //running 이 false 가 될 때까지 반복하고 처리한 총 건수를 돌려준다 (호출한 스레드에서 실행)
+    public long run(Specification<Member> spec, int batchSize, Consumer<Member> processor, BooleanSupplier running) {
+        long total = 0;
+        long backoffNanos = minBackoffNanos;
+        while (running.getAsBoolean() && !Thread.currentThread().isInterrupted()) {
+            int processed;
+            try {
+                processed = claimAndProcess(spec, batchSize, processor);
+            } catch (ConcurrencyFailureException e) {
+                log.debug("claim conflict, backing off: {}", e.getMessage());
+                processed = 0;
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("claim batch failed, backing off", e);
+                processed = 0;
+            }
+
+            if (processed > 0) {
+                total += processed;
+                backoffNanos = minBackoffNanos;
+                continue;
+            }
+            //여러 워커가 동시에 깨어나지 않도록 jitter
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoffNanos / 2, backoffNanos + 1));
+            backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+        }
+        log.debug("claim worker stopped, processed={}", total);
+        return total;
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.search.SearchMode;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.util.List;
+
+/**
+ * 컨트롤러 응답에 필요한 데이터를 트랜잭션 안에서 모두 로딩해서 돌려준다 (open-in-view 를 끈 상태 기준).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Workload(WorkloadClass.OLTP)
+public class MemberQueryService {
+
+    private final MemberRepository memberRepository;
+
+    public String findUsername(Long id) {
+        return memberRepository.findById(id).orElseThrow().getUsername();
+    }
+
+    //MemberDto.writeJson 은 id, username 만 읽으므로 연관관계 로딩 없이 돌려줘도 된다
+    public Page<Member> findPage(Pageable pageable) {
+        return memberRepository.findAll(pageable);
+    }
+
+    public List<MemberDto> search(String q, SearchMode mode, int limit) {
+        //searchMembers 는 team 을 fetch join 한다
+        return memberRepository.searchMembers(q, mode, limit).stream()
+                .map(m -> new MemberDto(m.getId(), m.getUsername(), m.getTeam() == null ? null : m.getTeam().getName()))
+                .toList();
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.sync")
+public class MemberSyncProperties {
+
+    /**
+     * 최근 safetyLag 동안 변경된 행은 다음 호출로 미룬다.
+     * lastModifiedDate 는 flush 시각이라 커밋이 늦은 트랜잭션은 과거 시각의 행을 뒤늦게 커밋한다.
+     * 회원을 변경하는 트랜잭션의 flush~커밋 시간이 이 값보다 길면 그 변경은 영구히 누락되므로,
+     * 가장 긴 쓰기 트랜잭션(CSV import 청크, purge/archive 배치 포함)보다 충분히 크게 잡는다.
+     */
+    private Duration safetyLag = Duration.ofMinutes(5);
+
+    private int maxPageSize = 1000;
+}
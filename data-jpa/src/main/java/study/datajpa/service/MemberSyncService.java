@@ -0,0 +1,75 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberChangeDto;
+import study.datajpa.dto.MemberChangesResponse;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 워터마크 (lastModifiedDate, id) 이후에 변경된 회원을 keyset 방식으로 돌려준다.
+ * 토큰은 마지막으로 돌려준 행의 워터마크를 base64로 인코딩한 값이다.
+ * lastModifiedDate 는 커밋 시각이 아닌 flush 시각이므로 flush 후 커밋까지 safety-lag 보다 오래 걸린 변경은
+ * 이미 내준 워터마크보다 과거 값으로 보이게 되어 동기화에서 빠진다 ({@link MemberSyncProperties#getSafetyLag()}).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Workload(WorkloadClass.OLTP)
+@EnableConfigurationProperties(MemberSyncProperties.class)
+public class MemberSyncService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final MemberRepository memberRepository;
+    private final MemberSyncProperties properties;
+
+    public MemberChangesResponse changesSince(String token, int size) {
+        int pageSize = Math.min(Math.max(size, 1), properties.getMaxPageSize());
+        Watermark from = token == null || token.isBlank() ? new Watermark(BEGINNING, 0L) : Watermark.decode(token);
+        LocalDateTime until = LocalDateTime.now().minus(properties.getSafetyLag());
+
+        //다음 페이지가 있는지 알기 위해 한 건 더 읽는다
+        List<Member> members = memberRepository.findChangedSince(from.modifiedAt, from.id, until,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = members.size() > pageSize;
+        if (hasMore) {
+            members = members.subList(0, pageSize);
+        }
+
+        List<MemberChangeDto> changes = members.stream().map(MemberChangeDto::new).toList();
+        Watermark next = changes.isEmpty() ? from : new Watermark(
+                changes.get(changes.size() - 1).getLastModifiedDate(), changes.get(changes.size() - 1).getId());
+        return new MemberChangesResponse(changes, next.encode(), hasMore);
+    }
+
+    private record Watermark(LocalDateTime modifiedAt, Long id) {
+
+        String encode() {
+            String raw = modifiedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Watermark decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Watermark(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new InvalidSyncTokenException("invalid sync token: " + token, e);
+            }
+        }
+    }
+}
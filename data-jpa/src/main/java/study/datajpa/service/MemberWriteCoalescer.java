@@ -0,0 +1,174 @@
+package study.datajpa.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 동시에 들어온 회원 저장 요청을 모아서 한 트랜잭션(그룹 커밋)으로 저장한다.
+ * 요청 스레드는 lock-free 큐에 넣고 future를 받고, 단일 writer 스레드가 묶음 단위로 꺼내서 저장한다.
+ * 큐 용량은 Semaphore로 제한하고 가득 차면 offerTimeout 후 거절한다(backpressure).
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(MemberWriteProperties.class)
+public class MemberWriteCoalescer {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long offerTimeoutNanos;
+
+    private final ConcurrentLinkedQueue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore capacity;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public MemberWriteCoalescer(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                                MemberWriteProperties properties) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+        this.capacity = new Semaphore(properties.getQueueCapacity());
+    }
+
+    public CompletableFuture<Long> submit(Member member) {
+        if (!running) {
+            throw new RejectedExecutionException("member writer is not running");
+        }
+        try {
+            if (!capacity.tryAcquire(offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("member write queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+        PendingWrite write = new PendingWrite(member);
+        queue.offer(write);
+        //running 확인 뒤에 stop 되었으면 writer 가 이미 끝났을 수 있다. 아직 큐에 남아 있으면 되찾아서 거절
+        if (!running && queue.remove(write)) {
+            capacity.release();
+            throw new RejectedExecutionException("member writer is not running");
+        }
+        LockSupport.unpark(writer);
+        return write.future;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "member-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        //join 시간 안에 못 끝낸 요청은 기다리는 쪽이 멈추지 않도록 실패로 끝낸다
+        PendingWrite pending;
+        while ((pending = queue.poll()) != null) {
+            capacity.release();
+            pending.future.completeExceptionally(new RejectedExecutionException("member writer stopped"));
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            PendingWrite first = queue.poll();
+            if (first == null) {
+                //빈 큐에서는 submit/stop 의 unpark 까지 잠든다. maxWait 는 묶음이 시작된 뒤에만 센다
+                LockSupport.park(this);
+                continue;
+            }
+            batch.add(first);
+
+            long deadline = System.nanoTime() + maxWaitNanos;
+            while (batch.size() < maxBatchSize) {
+                PendingWrite next = queue.poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+
+            try {
+                flush(batch);
+            } catch (Throwable e) {
+                //flush 가 처리하지 못한 예외(Error 등)로 writer 가 죽으면 future 가 영원히 끝나지 않는다
+                log.error("member write batch of {} failed", batch.size(), e);
+                batch.forEach(write -> write.future.completeExceptionally(e));
+            } finally {
+                capacity.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingWrite write : batch) {
+                    memberRepository.save(write.member);
+                }
+            });
+            for (PendingWrite write : batch) {
+                write.future.complete(write.member.getId());
+            }
+        } catch (RuntimeException e) {
+            //한 건 때문에 묶음 전체가 실패하지 않도록 건별 트랜잭션으로 다시 저장
+            log.warn("group commit of {} members failed, retrying one by one", batch.size(), e);
+            for (PendingWrite write : batch) {
+                saveAlone(write);
+            }
+        }
+    }
+
+    private void saveAlone(PendingWrite write) {
+        try {
+            //롤백된 묶음에서 채번된 id는 버린다
+            write.member.setId(null);
+            transactionTemplate.executeWithoutResult(status -> memberRepository.save(write.member));
+            write.future.complete(write.member.getId());
+        } catch (RuntimeException e) {
+            write.future.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingWrite {
+        private final Member member;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        PendingWrite(Member member) {
+            this.member = member;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.write-coalescing")
+public class MemberWriteProperties {
+
+    //한 트랜잭션에 묶을 최대 건수
+    private int maxBatchSize = 100;
+
+    //첫 요청이 들어온 뒤 묶음을 채우기 위해 기다리는 최대 시간
+    private Duration maxWait = Duration.ofMillis(5);
+
+    private int queueCapacity = 10_000;
+
+    //큐가 가득 찼을 때 요청 스레드가 기다리는 시간, 넘으면 거절
+    private Duration offerTimeout = Duration.ofMillis(100);
+}
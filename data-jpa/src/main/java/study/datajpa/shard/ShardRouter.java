@@ -0,0 +1,48 @@
+package study.datajpa.shard;
+
+import study.datajpa.entity.Member;
+
+public class ShardRouter {
+
+    //회원 id 상위 비트 = 샤드 번호. 샤드마다 2^48 개의 member_seq 구간을 쓴다
+    static final int MEMBER_ID_BITS = 48;
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(Long teamId) {
+        //팀이 없는 회원은 0번 샤드에 둔다
+        if (teamId == null) {
+            return 0;
+        }
+        //TSID 하위 비트는 node + 같은 ms 안의 sequence 라서 팀 id 는 거의 항상 (node << 12 | 0) 로 끝난다.
+        //id 그대로 나머지를 구하면 2/4/8 샤드에서 전부 0번으로 몰리므로 모든 비트를 섞은 값으로 나눈다
+        return (int) Math.floorMod(mix(teamId), (long) shardCount);
+    }
+
+    //shard 번 샤드의 member_seq 구간 시작 (0번은 1부터)
+    public long firstMemberId(int shard) {
+        return Math.max(1L, (long) shard << MEMBER_ID_BITS);
+    }
+
+    public int shardFor(Member member) {
+        return shardFor(member.getTeam() == null ? null : member.getTeam().getId());
+    }
+
+    //MurmurHash3 fmix64
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.shard;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * hibernate ddl-auto는 기본 샤드(0번)에만 적용되므로 나머지 샤드에도 같은 스키마를 만든다.
+ * 샤드마다 member_seq 를 서로 다른 구간에서 시작시켜 회원 id 가 샤드 사이에서 겹치지 않게 한다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "datajpa.sharding", name = "enabled", havingValue = "true")
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory emf;
+    private final ShardRouter router;
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String ddlAuto = environment.getProperty("spring.jpa.hibernate.ddl-auto", "none");
+        if (ddlAuto.startsWith("create")) {
+            SchemaManager schemaManager = emf.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < router.getShardCount(); shard++) {
+                ShardContext.callOn(shard, () -> {
+                    schemaManager.dropMappedObjects(false);
+                    schemaManager.exportMappedObjects(false);
+                    return null;
+                });
+            }
+        }
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            assignMemberIdRange(shard);
+        }
+    }
+
+    //[start, end) 구간 밖이면 구간 시작으로 옮긴다. 이미 구간 안에서 발급 중이면 그대로 두므로 재기동해도 안전하다
+    private void assignMemberIdRange(int shard) {
+        long start = router.firstMemberId(shard);
+        long end = router.firstMemberId(shard + 1);
+        ShardContext.callOn(shard, () -> {
+            Long current = jdbcTemplate.queryForObject(
+                    "select current_value from information_schema.sequences where sequence_name = 'MEMBER_SEQ'", Long.class);
+            if (current != null && current >= end) {
+                throw new IllegalStateException("member_seq on shard " + shard + " is " + current
+                        + ", outside its id range [" + start + ", " + end + ")");
+            }
+            if (current == null || current < start) {
+                jdbcTemplate.execute("alter sequence member_seq restart with " + start);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,280 @@
+package study.datajpa.shard;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.DisposableBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * team_id 기준으로 회원을 샤드에 나눠 저장한다.
+ * 단건 조회는 소유 샤드로 바로 가고, 목록 조회는 모든 샤드에 병렬로 보낸 뒤 정렬 병합한다.
+ * 팀은 크기가 작은 기준 데이터이므로 0번 샤드에 저장한 뒤 모든 샤드에 MERGE 로 복제한다. 복제는 멱등이라
+ * 실패하면 다시 시도하고, 끝내 실패한 샤드는 {@link #syncTeams()} 로 맞춘다 (기동 시에도 한 번 실행).
+ * 회원 id 는 샤드마다 다른 member_seq 구간에서 발급되므로 샤드 사이에서 겹치지 않는다 ({@link ShardSchemaInitializer}).
+ * 조회 결과는 샤드별 트랜잭션이 끝난 준영속 엔티티다.
+ * <p>
+ * 제약
+ * <ul>
+ * <li>이 클래스를 거친 호출만 샤드로 나뉜다. MemberRepository, 서비스, 배치, 네이티브 SQL 등을 직접 쓰면
+ * {@link ShardContext} 가 비어 있어 모두 0번 샤드로 간다.</li>
+ * <li>목록 조회는 샤드마다 offset + size 행을 읽으므로 offset + size 가 max-scatter-window 를 넘으면 거절한다.
+ * 깊은 페이지는 정렬 키 기준 keyset 조회로 바꿔야 한다.</li>
+ * <li>샤드를 넘는 트랜잭션은 없다. 팀 저장과 복제는 각각 별도 트랜잭션이다.</li>
+ * </ul>
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(prefix = "datajpa.sharding", name = "enabled", havingValue = "true")
+public class ShardedMemberRepository implements DisposableBean {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter router;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readTemplate;
+    private final ExecutorService executor;
+    private final int teamCopyAttempts;
+    private final int maxScatterWindow;
+
+    public ShardedMemberRepository(MemberRepository memberRepository, TeamRepository teamRepository,
+                                   JdbcTemplate jdbcTemplate, ShardRouter router,
+                                   PlatformTransactionManager transactionManager, ShardingProperties properties) {
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.router = router;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        int parallelism = properties.getParallelism() > 0 ? properties.getParallelism() : router.getShardCount();
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.teamCopyAttempts = Math.max(1, properties.getTeamCopyAttempts());
+        this.maxScatterWindow = properties.getMaxScatterWindow();
+    }
+
+    public Team saveTeam(Team team) {
+        Team saved = onShard(0, writeTemplate, () -> teamRepository.save(team));
+        List<Integer> failed = new ArrayList<>();
+        for (int shard = 1; shard < router.getShardCount(); shard++) {
+            if (!copyTeam(shard, saved.getId(), saved.getName())) {
+                failed.add(shard);
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("team " + saved.getId() + " saved on shard 0 but not copied to shards "
+                    + failed + "; run syncTeams() to repair");
+        }
+        return saved;
+    }
+
+    /**
+     * 0번 샤드의 팀 전체를 나머지 샤드에 MERGE 한다. 복제가 중간에 실패한 팀을 맞추는 용도이며 여러 번 실행해도 결과가 같다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncTeams() {
+        List<Team> teams = onShard(0, readTemplate, teamRepository::findAll);
+        for (int shard = 1; shard < router.getShardCount(); shard++) {
+            for (Team team : teams) {
+                if (!copyTeam(shard, team.getId(), team.getName())) {
+                    log.warn("team {} not copied to shard {}", team.getId(), shard);
+                }
+            }
+        }
+    }
+
+    //team_id 가 같으면 덮어쓰므로 재시도나 syncTeams 와 겹쳐도 중복 행이 생기지 않는다
+    private boolean copyTeam(int shard, Long teamId, String name) {
+        for (int attempt = 1; attempt <= teamCopyAttempts; attempt++) {
+            try {
+                ShardContext.callOn(shard, () -> jdbcTemplate.update(
+                        "merge into team (team_id, name) key (team_id) values (?, ?)", teamId, name));
+                return true;
+            } catch (DataAccessException e) {
+                log.warn("team {} copy to shard {} failed (attempt {}/{})", teamId, shard, attempt, teamCopyAttempts, e);
+                if (attempt < teamCopyAttempts && !backoff(attempt)) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean backoff(int attempt) {
+        try {
+            Thread.sleep(100L << (attempt - 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public Member save(Member member) {
+        return onShard(router.shardFor(member), writeTemplate, () -> memberRepository.save(member));
+    }
+
+    public Optional<Member> findById(Long teamId, Long memberId) {
+        return onShard(router.shardFor(teamId), readTemplate, () -> memberRepository.findById(memberId));
+    }
+
+    public long count() {
+        return scatter(memberRepository::count).stream().mapToLong(Long::longValue).sum();
+    }
+
+    public List<Member> findByNames(Collection<String> names) {
+        List<Member> result = new ArrayList<>();
+        scatter(() -> memberRepository.findByNames(names)).forEach(result::addAll);
+        return result;
+    }
+
+    public Page<Member> findAll(Pageable pageable) {
+        return mergePages(pageable, shardPageable -> memberRepository.findAll(shardPageable));
+    }
+
+    public Page<Member> findByAge(int age, Pageable pageable) {
+        return mergePages(pageable, shardPageable -> memberRepository.findByAge(age, shardPageable));
+    }
+
+    private Page<Member> mergePages(Pageable pageable, Function<Pageable, Page<Member>> query) {
+        Assert.isTrue(pageable.isPaged(), "sharded queries require a paged request");
+        //각 샤드에서 offset + size 만큼을 가져와야 전체 순서에서 요청 페이지를 정확히 만들 수 있다
+        long window = pageable.getOffset() + pageable.getPageSize();
+        Assert.isTrue(window <= maxScatterWindow, () -> "sharded page window " + window
+                + " exceeds datajpa.sharding.max-scatter-window " + maxScatterWindow + "; use keyset paging for deep pages");
+        Pageable shardPageable = PageRequest.of(0, (int) window, pageable.getSort());
+        List<Page<Member>> pages = scatter(() -> query.apply(shardPageable));
+
+        long total = 0;
+        List<List<Member>> contents = new ArrayList<>();
+        for (Page<Member> page : pages) {
+            total += page.getTotalElements();
+            contents.add(page.getContent());
+        }
+        List<Member> content = mergeSorted(contents, comparatorOf(pageable.getSort()), pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private <T> List<T> scatter(Supplier<T> action) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, readTemplate, action), executor));
+        }
+        List<T> results = new ArrayList<>();
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private <T> T onShard(int shard, TransactionTemplate template, Supplier<T> action) {
+        return ShardContext.callOn(shard, () -> template.execute(status -> action.get()));
+    }
+
+    static List<Member> mergeSorted(List<List<Member>> lists, Comparator<Member> comparator, long skip, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> {
+            int result = comparator.compare(a.current(), b.current());
+            return result != 0 ? result : Integer.compare(a.shard, b.shard);
+        });
+        for (int shard = 0; shard < lists.size(); shard++) {
+            if (!lists.get(shard).isEmpty()) {
+                heads.add(new Cursor(lists.get(shard), shard));
+            }
+        }
+
+        List<Member> result = new ArrayList<>(limit);
+        long position = 0;
+        while (!heads.isEmpty() && result.size() < limit) {
+            Cursor head = heads.poll();
+            if (position++ >= skip) {
+                result.add(head.current());
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+
+    static Comparator<Member> comparatorOf(Sort sort) {
+        Comparator<Member> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Member> byProperty = (a, b) -> compareProperty(a, b, order.getProperty());
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareProperty(Member a, Member b, String property) {
+        Comparable left = (Comparable) new BeanWrapperImpl(a).getPropertyValue(property);
+        Comparable right = (Comparable) new BeanWrapperImpl(b).getPropertyValue(property);
+        if (left == null || right == null) {
+            //H2와 동일하게 null을 앞에 둔다
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        return left.compareTo(right);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static class Cursor {
+        private final List<Member> members;
+        private final int shard;
+        private int index;
+
+        Cursor(List<Member> members, int shard) {
+            this.members = members;
+            this.shard = shard;
+        }
+
+        Member current() {
+            return members.get(index);
+        }
+
+        boolean advance() {
+            return ++index < members.size();
+        }
+    }
+}
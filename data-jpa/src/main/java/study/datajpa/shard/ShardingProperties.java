@@ -0,0 +1,36 @@
+package study.datajpa.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    //scatter-gather 병렬 조회에 사용할 스레드 수, 0이면 샤드 수만큼
+    private int parallelism;
+
+    //0번 샤드에 저장한 팀을 나머지 샤드에 복제할 때 샤드별 시도 횟수
+    private int teamCopyAttempts = 3;
+
+    //목록 조회는 샤드마다 offset + size 행을 읽으므로 이보다 깊은 페이지는 거절한다
+    private int maxScatterWindow = 10_000;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.sortpolicy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 이 Pageable 파라미터의 정렬은 value 엔티티의 인덱스가 있는 속성만 허용한다 ({@link SortPolicy}).
+ * 마지막에는 항상 id 가 붙는다.
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IndexedSort {
+
+    Class<?> value();
+}
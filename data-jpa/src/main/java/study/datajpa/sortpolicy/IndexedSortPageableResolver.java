@@ -0,0 +1,34 @@
+package study.datajpa.sortpolicy;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+//@IndexedSort Pageable 은 스프링 데이터 resolver 로 만든 뒤 SortPolicy 를 적용한다
+public class IndexedSortPageableResolver implements HandlerMethodArgumentResolver {
+
+    private final PageableHandlerMethodArgumentResolver delegate;
+    private final SortPolicy sortPolicy;
+
+    public IndexedSortPageableResolver(PageableHandlerMethodArgumentResolver delegate, SortPolicy sortPolicy) {
+        this.delegate = delegate;
+        this.sortPolicy = sortPolicy;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return Pageable.class.equals(parameter.getParameterType()) && parameter.hasParameterAnnotation(IndexedSort.class);
+    }
+
+    @Override
+    public Pageable resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                    NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Pageable pageable = delegate.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        IndexedSort indexedSort = parameter.getParameterAnnotation(IndexedSort.class);
+        return sortPolicy.apply(indexedSort.value(), pageable);
+    }
+}
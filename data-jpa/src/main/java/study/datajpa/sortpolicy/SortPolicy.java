@@ -0,0 +1,181 @@
+package study.datajpa.sortpolicy;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pageable 정렬 화이트리스트. 인덱스 없는 컬럼으로 정렬하면 페이지마다 테이블 전체를 정렬하게 되므로,
+ * 설정한 속성 중 스키마에서 인덱스(또는 PK)의 선두 컬럼인 것만 허용한다. 아니면 기동을 멈춘다.
+ * <p>
+ * 요청 정렬 끝에는 항상 id 를 붙여서 (같은 값이 여러 행이어도) 페이지 경계가 흔들리지 않게 한다.
+ * id 의 방향은 마지막 정렬과 같게 해서 (username, member_id) 같은 인덱스를 한 방향으로 읽을 수 있게 한다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(SortPolicyProperties.class)
+public class SortPolicy {
+
+    private final SortPolicyProperties properties;
+    private final Map<Class<?>, EntitySorts> entities = new HashMap<>();
+
+    public SortPolicy(SortPolicyProperties properties, EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.properties = properties;
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        for (var entityType : sessionFactory.getJpaMetamodel().getEntities()) {
+            List<String> allowed = allowedFor(entityType.getName());
+            if (allowed == null) {
+                continue;
+            }
+            Class<?> javaType = entityType.getJavaType();
+            AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMappingMetamodel()
+                    .getEntityDescriptor(javaType);
+            EntitySorts sorts = new EntitySorts(persister.getIdentifierPropertyName(), validate(persister, allowed, dataSource));
+            entities.put(javaType, sorts);
+            log.info("sortable properties of {}: {} (tie-breaker {})", entityType.getName(), sorts.allowed(), sorts.idProperty());
+        }
+        if (entities.size() < properties.getAllowed().size()) {
+            throw new IllegalStateException("datajpa.sort-policy.allowed has unknown entities: " + properties.getAllowed().keySet());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Set<String> allowedProperties(Class<?> entity) {
+        EntitySorts sorts = entities.get(entity);
+        return sorts == null ? Set.of() : sorts.allowed();
+    }
+
+    public Pageable apply(Class<?> entity, Pageable pageable) {
+        if (!properties.isEnabled() || pageable.isUnpaged()) {
+            return pageable;
+        }
+        EntitySorts sorts = entities.get(entity);
+        if (sorts == null) {
+            throw new IllegalStateException("no datajpa.sort-policy.allowed entry for " + entity.getSimpleName());
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            //upper(...) 정렬은 인덱스를 못 탄다
+            if (sorts.allowed().contains(order.getProperty()) && !order.isIgnoreCase()) {
+                orders.add(order);
+            } else {
+                rejected.add(order.getProperty() + (order.isIgnoreCase() ? " (ignore case)" : ""));
+            }
+        }
+        if (!rejected.isEmpty()) {
+            if (properties.getMode() == SortPolicyProperties.Mode.REJECT) {
+                throw new InvalidSortException("cannot sort by " + rejected + ", allowed: " + sorts.allowed());
+            }
+            log.debug("dropped sort {} for {}", rejected, entity.getSimpleName());
+        }
+
+        //id 뒤의 정렬은 의미가 없으므로 id 에서 끊는다
+        List<Sort.Order> effective = new ArrayList<>();
+        Sort.Direction lastDirection = Sort.Direction.ASC;
+        boolean hasId = false;
+        for (Sort.Order order : orders) {
+            effective.add(order);
+            lastDirection = order.getDirection();
+            if (order.getProperty().equals(sorts.idProperty())) {
+                hasId = true;
+                break;
+            }
+        }
+        if (!hasId) {
+            effective.add(new Sort.Order(lastDirection, sorts.idProperty()));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(effective));
+    }
+
+    private List<String> allowedFor(String entityName) {
+        for (Map.Entry<String, List<String>> entry : properties.getAllowed().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(entityName)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> validate(AbstractEntityPersister persister, List<String> allowed, DataSource dataSource) {
+        Set<String> leadingColumns = leadingIndexColumns(dataSource, persister.getTableName());
+        Set<String> validated = new LinkedHashSet<>();
+        List<String> unindexed = new ArrayList<>();
+        for (String property : allowed) {
+            String[] columns;
+            try {
+                columns = property.equals(persister.getIdentifierPropertyName())
+                        ? persister.getIdentifierColumnNames()
+                        : persister.getPropertyColumnNames(property);
+            } catch (RuntimeException e) {
+                unindexed.add(property + " (unknown property)");
+                continue;
+            }
+            if (columns.length == 1 && leadingColumns.contains(columns[0].toLowerCase(Locale.ROOT))) {
+                validated.add(property);
+            } else {
+                unindexed.add(property + " -> " + String.join(", ", columns));
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            throw new IllegalStateException("datajpa.sort-policy.allowed for " + persister.getEntityName()
+                    + " has properties without an index on " + persister.getTableName() + ": " + unindexed);
+        }
+        validated.add(persister.getIdentifierPropertyName());
+        return Collections.unmodifiableSet(validated);
+    }
+
+    //인덱스/PK 의 첫 번째 컬럼 (소문자)
+    private static Set<String> leadingIndexColumns(DataSource dataSource, String tableName) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? tableName.toUpperCase(Locale.ROOT)
+                    : metaData.storesLowerCaseIdentifiers() ? tableName.toLowerCase(Locale.ROOT) : tableName;
+            Set<String> columns = new HashSet<>();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+                while (indexes.next()) {
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && indexes.getString("COLUMN_NAME") != null) {
+                        columns.add(indexes.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            try (ResultSet primaryKey = metaData.getPrimaryKeys(connection.getCatalog(), null, table)) {
+                while (primaryKey.next()) {
+                    if (primaryKey.getShort("KEY_SEQ") == 1) {
+                        columns.add(primaryKey.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columns;
+        } catch (SQLException e) {
+            throw new IllegalStateException("cannot read indexes of " + tableName, e);
+        }
+    }
+
+    private record EntitySorts(String idProperty, Set<String> allowed) {
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.sortpolicy;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.sort-policy")
+public class SortPolicyProperties {
+
+    private boolean enabled = true;
+
+    private Mode mode = Mode.REJECT;
+
+    //엔티티 이름(대소문자 무시) -> 정렬을 허용할 속성. 기동 시 인덱스 선두 컬럼인지 검사한다
+    private Map<String, List<String>> allowed = new HashMap<>();
+
+    public enum Mode {
+        //허용하지 않는 정렬이 있으면 400
+        REJECT,
+        //허용하지 않는 정렬은 빼고 진행
+        REWRITE
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.sortpolicy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+//스프링 데이터의 Pageable resolver 보다 먼저 등록되어야 @IndexedSort 파라미터를 가져간다
+@Configuration
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SortPolicyWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<PageableHandlerMethodArgumentResolver> pageableResolver;
+    private final ObjectProvider<SortPolicy> sortPolicy;
+
+    public SortPolicyWebConfig(ObjectProvider<PageableHandlerMethodArgumentResolver> pageableResolver,
+                               ObjectProvider<SortPolicy> sortPolicy) {
+        this.pageableResolver = pageableResolver;
+        this.sortPolicy = sortPolicy;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new IndexedSortPageableResolver(pageableResolver.getObject(), sortPolicy.getObject()));
+    }
+}
@@ -0,0 +1,99 @@
+package study.datajpa.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.workload.Workload;
+import study.datajpa.workload.WorkloadClass;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 집계 테이블을 member 에서 다시 센 값과 비교해서 어긋난 행을 고친다.
+ * (리스너를 거치지 않은 직접 SQL 변경 등으로 생긴 drift 복구용)
+ * 고치는 행은 잠근 뒤에 다시 세므로 동시에 커밋되는 리스너 증분과 섞여도 값을 잃지 않는다.
+ */
+@Slf4j
+@Component
+@Workload(WorkloadClass.BATCH)
+@RequiredArgsConstructor
+public class AggregateReconciler {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${datajpa.aggregates.reconcile-interval:PT10M}",
+            initialDelayString = "${datajpa.aggregates.reconcile-interval:PT10M}")
+    @Transactional
+    public int reconcile() {
+        int drift = repair("team_member_count", "team_id", "bigint",
+                "select team_id, count(*) from member where team_id is not null group by team_id");
+        drift += repair("age_histogram", "age", "int",
+                "select age, count(*) from member group by age");
+        if (drift > 0) {
+            log.warn("repaired {} drifted aggregate rows", drift);
+        }
+        return drift;
+    }
+
+    /**
+     * 잠금 없이 전체를 비교해서 어긋나 보이는 키만 고른 뒤, 그 행을 잠그고 다시 세서 고친다.
+     * 잠금 없이 센 값으로 덮어쓰면 그 사이 커밋된 리스너 증분을 잃는다.
+     */
+    private int repair(String table, String keyColumn, String keyType, String actualQuery) {
+        Map<Long, Long> actual = toMap(actualQuery);
+        Map<Long, Long> stored = toMap("select " + keyColumn + ", member_count from " + table);
+
+        int drift = 0;
+        Set<Long> keys = new HashSet<>(actual.keySet());
+        keys.addAll(stored.keySet());
+        for (Long key : keys) {
+            long expected = actual.getOrDefault(key, 0L);
+            Long current = stored.get(key);
+            if (current != null && current == expected) {
+                continue;
+            }
+            if (repairLocked(table, keyColumn, keyType, key)) {
+                drift++;
+            }
+        }
+        return drift;
+    }
+
+    private boolean repairLocked(String table, String keyColumn, String keyType, Long key) {
+        //행이 없으면 0 으로 만들면서 행 잠금을 잡는다 (값은 그대로 두는 update).
+        //증분을 이미 쓴 트랜잭션은 커밋될 때까지 기다리고, 아직 안 쓴 트랜잭션은 이 트랜잭션 커밋 뒤에 증분을 더한다.
+        //그 트랜잭션의 member 변경은 아래 count 에 보이지 않으므로 두 경우 모두 증분이 한 번만 반영된다
+        jdbcTemplate.update("merge into " + table + " c " +
+                "using (select cast(? as " + keyType + ") k) d on (c." + keyColumn + " = d.k) " +
+                "when matched then update set member_count = c.member_count " +
+                "when not matched then insert (" + keyColumn + ", member_count) values (d.k, 0)", key);
+        long current = jdbcTemplate.queryForObject(
+                "select member_count from " + table + " where " + keyColumn + " = ?", Long.class, key);
+        long expected = jdbcTemplate.queryForObject(
+                "select count(*) from member where " + keyColumn + " = ?", Long.class, key);
+
+        if (expected == 0) {
+            jdbcTemplate.update("delete from " + table + " where " + keyColumn + " = ?", key);
+            return current != 0;
+        }
+        if (current == expected) {
+            return false;
+        }
+        jdbcTemplate.update("update " + table + " set member_count = ? where " + keyColumn + " = ?", expected, key);
+        return true;
+    }
+
+    private Map<Long, Long> toMap(String sql) {
+        Map<Long, Long> result = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            result.put(rs.getLong(1), rs.getLong(2));
+        });
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.stats;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor
+public class MemberAggregateListener {
+
+    private final MemberAggregates aggregates;
+
+    @PostLoad
+    public void loaded(Member member) {
+        member.markAggregated();
+    }
+
+    @PostPersist
+    public void persisted(Member member) {
+        aggregates.addAge(member.getAge(), 1);
+        aggregates.addTeam(member.getTeamId(), 1);
+        member.markAggregated();
+    }
+
+    @PostUpdate
+    public void updated(Member member) {
+        Integer previousAge = member.getAggregatedAge();
+        if (previousAge != null && previousAge != member.getAge()) {
+            aggregates.addAge(previousAge, -1);
+            aggregates.addAge(member.getAge(), 1);
+        }
+        Long previousTeamId = member.getAggregatedTeamId();
+        if (!Objects.equals(previousTeamId, member.getTeamId())) {
+            aggregates.addTeam(previousTeamId, -1);
+            aggregates.addTeam(member.getTeamId(), 1);
+        }
+        member.markAggregated();
+    }
+
+    @PostRemove
+    public void removed(Member member) {
+        aggregates.addAge(member.getAggregatedAge() != null ? member.getAggregatedAge() : member.getAge(), -1);
+        aggregates.addTeam(member.getAggregatedAge() != null ? member.getAggregatedTeamId() : member.getTeamId(), -1);
+    }
+}
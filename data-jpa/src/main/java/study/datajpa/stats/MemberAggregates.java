@@ -0,0 +1,69 @@
+package study.datajpa.stats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * team_member_count, age_histogram 집계 테이블 갱신.
+ * JdbcTemplate 은 JPA 트랜잭션에 묶인 같은 커넥션을 사용하므로 회원 변경과 같은 트랜잭션에서 반영된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberAggregates {
+
+    private static final String MERGE_TEAM_COUNT =
+            "merge into team_member_count c " +
+            "using (select cast(? as bigint) team_id, cast(? as bigint) delta) d on (c.team_id = d.team_id) " +
+            "when matched then update set member_count = c.member_count + d.delta " +
+            "when not matched then insert (team_id, member_count) values (d.team_id, d.delta)";
+
+    private static final String MERGE_AGE_COUNT =
+            "merge into age_histogram h " +
+            "using (select cast(? as int) age, cast(? as bigint) delta) d on (h.age = d.age) " +
+            "when matched then update set member_count = h.member_count + d.delta " +
+            "when not matched then insert (age, member_count) values (d.age, d.delta)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addTeam(Long teamId, long delta) {
+        if (teamId != null && delta != 0) {
+            jdbcTemplate.update(MERGE_TEAM_COUNT, teamId, delta);
+        }
+    }
+
+    public void addAge(int age, long delta) {
+        if (delta != 0) {
+            jdbcTemplate.update(MERGE_AGE_COUNT, age, delta);
+        }
+    }
+
+    /**
+     * SQL 로 member 에서 지울(옮길) 회원만큼 집계를 뺀다. 삭제 전에, 같은 트랜잭션에서 호출해야 한다.
+     */
+    public void removeMembers(List<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        String in = String.join(", ", Collections.nCopies(memberIds.size(), "?"));
+        Object[] args = memberIds.toArray();
+        List<long[]> ages = jdbcTemplate.query("select age, count(*) from member where member_id in (" + in + ") group by age",
+                (rs, rowNum) -> new long[]{rs.getInt(1), rs.getLong(2)}, args);
+        List<long[]> teams = jdbcTemplate.query("select team_id, count(*) from member where team_id is not null and member_id in (" + in + ") group by team_id",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, args);
+        ages.forEach(age -> addAge((int) age[0], -age[1]));
+        teams.forEach(team -> addTeam(team[0], -team[1]));
+    }
+
+    /**
+     * 벌크 연산(age >= fromAge 인 회원의 나이 변경) 이후 영향 받은 구간만 member 에서 다시 센다.
+     */
+    public void rebuildAgesFrom(int fromAge) {
+        jdbcTemplate.update("delete from age_histogram where age >= ?", fromAge);
+        jdbcTemplate.update("insert into age_histogram (age, member_count) " +
+                "select age, count(*) from member where age >= ? group by age", fromAge);
+    }
+}
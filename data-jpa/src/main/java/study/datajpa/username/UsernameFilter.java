@@ -0,0 +1,157 @@
+package study.datajpa.username;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 존재하는 username(member + member_archive) 의 Bloom filter.
+ * mightContain 이 false 면 확실히 없는 username 이므로 DB 를 조회하지 않아도 된다.
+ * <p>
+ * 기동 후 스트리밍 스캔으로 채우고, 그 전(또는 비활성화 상태)에는 항상 true 를 돌려준다.
+ * 스캔 중에도 엔티티 리스너가 같은 필터에 추가하므로 이 JVM 을 거친 username 은 빠지지 않는다.
+ * 다른 인스턴스나 직접 SQL 로 들어온 username 은 다음 reload 까지 빠져 있을 수 있다 (false negative).
+ * 그래서 {@code single-writer} 가 아니면 쓰기 트랜잭션 안의 확인(중복 가입 검사 등)은 필터를 믿지 않는다.
+ * Bloom filter 는 삭제가 안 되므로 삭제/변경된 username 은 남아서 false positive 가 되고, 재기동 시 정리된다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(UsernameFilterProperties.class)
+public class UsernameFilter implements MeterBinder {
+
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final boolean singleWriter;
+    private final BloomFilter filter;
+    private volatile boolean loaded;
+
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    public UsernameFilter(JdbcTemplate jdbcTemplate, UsernameFilterProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = properties.isEnabled();
+        this.singleWriter = properties.isSingleWriter();
+        this.filter = new BloomFilter(properties.getExpectedInsertions(), properties.getFpp());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.username-filter.reload-interval:PT5M}",
+            initialDelayString = "${datajpa.username-filter.reload-interval:PT5M}")
+    public void reload() {
+        if (enabled && loaded) {
+            load();
+        }
+    }
+
+    //추가만 하므로 언제 다시 불러도 안전하다 (SQL 로 직접 넣은 회원 반영 등)
+    public long load() {
+        long start = System.currentTimeMillis();
+        long[] count = {0};
+        JdbcTemplate scan = new JdbcTemplate(jdbcTemplate.getDataSource());
+        scan.setFetchSize(SCAN_FETCH_SIZE);
+        try (Stream<String> usernames = scan.queryForStream(
+                "select username from member union all select username from member_archive",
+                (rs, rowNum) -> rs.getString(1))) {
+            usernames.forEach(username -> {
+                add(username);
+                count[0]++;
+            });
+        }
+        loaded = true;
+        log.info("username filter loaded: {} usernames in {} ms, {} bytes, k={}, expected fpp={}",
+                count[0], System.currentTimeMillis() - start, filter.memoryBytes(), filter.hashFunctions(), filter.expectedFpp());
+        return count[0];
+    }
+
+    public void add(String username) {
+        if (username != null) {
+            filter.put(username);
+            insertions.incrementAndGet();
+        }
+    }
+
+    public void removed(String username) {
+        if (username != null) {
+            staleEntries.incrementAndGet();
+        }
+    }
+
+    //필터가 낸 답. UNKNOWN 은 비활성화/적재 전이라 확인하지 않은 경우
+    public enum Answer {
+        ABSENT, MAYBE, UNKNOWN
+    }
+
+    public Answer check(String username) {
+        if (!enabled || !loaded) {
+            return Answer.UNKNOWN;
+        }
+        if (username == null || !filter.mightContain(username)) {
+            negatives.incrementAndGet();
+            return Answer.ABSENT;
+        }
+        positives.incrementAndGet();
+        return Answer.MAYBE;
+    }
+
+    public boolean mightContain(String username) {
+        return check(username) != Answer.ABSENT;
+    }
+
+    //false 인 mightContain 을 "확실히 없음" 으로 믿어도 되는지 (false 면 쓰기 트랜잭션 안에서는 DB 로 확인)
+    public boolean isSingleWriter() {
+        return singleWriter;
+    }
+
+    //check 가 MAYBE 였는데 DB 에 없었던 경우에만 부른다 (UNKNOWN, ABSENT 뒤의 DB 확인은 오탐이 아니다)
+    public void falsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("member.username.filter.fpp.expected", filter, BloomFilter::expectedFpp)
+                .description("false positive probability estimated from filled bits")
+                .register(registry);
+        Gauge.builder("member.username.filter.fpp.observed", this, UsernameFilter::observedFpp)
+                .description("maybe answers that turned out absent / all checks")
+                .register(registry);
+        Gauge.builder("member.username.filter.memory", filter, BloomFilter::memoryBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("member.username.filter.stale", staleEntries, AtomicLong::get)
+                .description("usernames removed from the database but still in the filter")
+                .register(registry);
+        FunctionCounter.builder("member.username.filter.insertions", insertions, AtomicLong::get).register(registry);
+        FunctionCounter.builder("member.username.filter.checks", negatives, AtomicLong::get).tag("result", "negative").register(registry);
+        FunctionCounter.builder("member.username.filter.checks", positives, AtomicLong::get).tag("result", "maybe").register(registry);
+        FunctionCounter.builder("member.username.filter.false.positives", falsePositives, AtomicLong::get).register(registry);
+    }
+
+    double observedFpp() {
+        long checks = negatives.get() + positives.get();
+        return checks == 0 ? 0 : (double) falsePositives.get() / checks;
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.username;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+//persist 시점(flush 전)에 바로 추가한다. 롤백되면 false positive 하나가 남을 뿐이지만, 늦게 넣으면 false negative 가 생긴다
+@Component
+@RequiredArgsConstructor
+public class UsernameFilterListener {
+
+    private final UsernameFilter usernameFilter;
+
+    @PrePersist
+    @PostUpdate
+    public void add(Member member) {
+        usernameFilter.add(member.getUsername());
+    }
+
+    @PostRemove
+    public void remove(Member member) {
+        usernameFilter.removed(member.getUsername());
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.username;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.username-filter")
+public class UsernameFilterProperties {
+
+    private boolean enabled = true;
+
+    //이 수를 넘게 들어가면 false positive 가 목표보다 커진다 (metric 으로 확인)
+    private long expectedInsertions = 1_000_000;
+
+    private double fpp = 0.01;
+
+    //모든 insert 가 이 JVM 의 엔티티 리스너를 거칠 때만 true (인스턴스 하나, SQL 직접 insert 없음)
+    //false 면 다른 인스턴스/직접 SQL 로 들어온 username 이 reload 전까지 필터에 없으므로 쓰기 트랜잭션 안의 확인은 DB 로 간다
+    private boolean singleWriter = false;
+
+    //DB 를 다시 스캔해서 이 JVM 을 거치지 않은 username 을 추가하는 주기
+    private Duration reloadInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,270 @@
+package study.datajpa.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.web.client.RestClient;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * 기동 직후 첫 요청이 치르는 비용(HQL/Criteria 변환, 쿼리 플랜 캐시, 스프링 데이터 쿼리 생성, 커넥션 풀 채우기, JIT)을
+ * readiness 전에 미리 치른다.
+ * <ol>
+ *     <li>커넥션 풀을 minimumIdle 까지 채운다</li>
+ *     <li>모든 리포지토리 쿼리 메서드를 결과가 없을 안전한 파라미터로 호출한다 (읽기 전용 트랜잭션, 항상 롤백)</li>
+ *     <li>설정한 GET 엔드포인트를 로컬 포트로 호출한다</li>
+ * </ol>
+ * ApplicationRunner 가 끝나야 스프링 부트가 ReadinessState.ACCEPTING_TRAFFIC 을 발행하므로
+ * /actuator/health/readiness 는 워밍업이 끝난 뒤에 UP 이 된다.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+public class StartupWarmup implements ApplicationRunner {
+
+    //결과가 없을 값
+    private static final String SAFE_STRING = "__warmup__";
+    private static final long SAFE_ID = -1L;
+
+    private final ApplicationContext applicationContext;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final WarmupProperties properties;
+
+    private volatile WarmupReport report;
+
+    public StartupWarmup(ApplicationContext applicationContext, DataSource dataSource,
+                         PlatformTransactionManager transactionManager, WarmupProperties properties) {
+        this.applicationContext = applicationContext;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int connections = prefillPool();
+        List<WarmupCall> calls = new ArrayList<>(repositoryCalls());
+        calls.addAll(endpointCalls());
+
+        long[] firstPass = new long[calls.size()];
+        long[] lastPass = new long[calls.size()];
+        int failed = 0;
+        for (int iteration = 0; iteration < properties.getIterations(); iteration++) {
+            for (int i = 0; i < calls.size(); i++) {
+                long callStart = System.nanoTime();
+                boolean ok = calls.get(i).run();
+                long elapsed = System.nanoTime() - callStart;
+                if (iteration == 0) {
+                    firstPass[i] = elapsed;
+                    failed += ok ? 0 : 1;
+                }
+                lastPass[i] = elapsed;
+            }
+        }
+
+        report = new WarmupReport(calls.size(), failed, connections, properties.getIterations(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), sum(firstPass), sum(lastPass));
+        log.info("warm-up took {} ms: {} calls x {} iterations ({} failed on first pass), {} pooled connections, " +
+                        "pass latency first={} us last={} us",
+                report.tookMillis(), report.calls(), report.iterations(), report.failed(), report.connections(),
+                TimeUnit.NANOSECONDS.toMicros(report.firstPassNanos()), TimeUnit.NANOSECONDS.toMicros(report.lastPassNanos()));
+        logSlowest(calls, firstPass, lastPass);
+    }
+
+    public WarmupReport report() {
+        return report;
+    }
+
+    //Hikari 는 빌려 간 만큼 새 커넥션을 만들므로 동시에 minimumIdle 개를 빌렸다가 돌려준다
+    private int prefillPool() {
+        int target = properties.getPoolPrefill();
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                target = dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+            }
+        } catch (SQLException e) {
+            log.debug("cannot unwrap data source", e);
+        }
+        List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (int i = 0; i < target; i++) {
+                borrowed.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("pool pre-fill stopped at {} connections", borrowed.size(), e);
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("cannot return warm-up connection", e);
+                }
+            }
+        }
+        return borrowed.size();
+    }
+
+    private List<WarmupCall> repositoryCalls() {
+        Repositories repositories = new Repositories(applicationContext);
+        List<WarmupCall> calls = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            String repositoryName = information.getRepositoryInterface().getSimpleName();
+            for (Method method : information.getQueryMethods()) {
+                String name = repositoryName + "." + method.getName();
+                Object[] arguments = safeArguments(method, domainType);
+                if (arguments == null || method.isAnnotationPresent(Modifying.class) || excluded(name)) {
+                    log.debug("warm-up skips {}", name);
+                    continue;
+                }
+                calls.add(new WarmupCall(name, () -> invokeAndRollback(repository, method, arguments)));
+            }
+        }
+        return calls;
+    }
+
+    private boolean excluded(String name) {
+        return properties.getExcludes().stream().anyMatch(pattern -> PatternMatchUtils.simpleMatch(pattern, name));
+    }
+
+    private void invokeAndRollback(Object repository, Method method, Object[] arguments) {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            try {
+                Object result = method.invoke(repository, arguments);
+                if (result instanceof BaseStream<?, ?> stream) {
+                    stream.close();
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            }
+        });
+    }
+
+    //파라미터 타입마다 결과가 없을 값, 만들 수 없는 타입이 있으면 null (호출하지 않는다)
+    private static Object[] safeArguments(Method method, Class<?> domainType) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == String.class) {
+                arguments[i] = SAFE_STRING;
+            } else if (type == int.class || type == Integer.class) {
+                arguments[i] = (int) SAFE_ID;
+            } else if (type == long.class || type == Long.class) {
+                arguments[i] = SAFE_ID;
+            } else if (type == Pageable.class) {
+                arguments[i] = PageRequest.of(0, 1);
+            } else if (type == Sort.class) {
+                arguments[i] = Sort.unsorted();
+            } else if (type == LocalDateTime.class) {
+                arguments[i] = LocalDateTime.of(1970, 1, 1, 0, 0);
+            } else if (type == LocalDate.class) {
+                arguments[i] = LocalDate.of(1970, 1, 1);
+            } else if (type == Collection.class || type == List.class) {
+                arguments[i] = List.of();
+            } else if (type == Set.class) {
+                arguments[i] = Set.of();
+            } else if (type == Class.class) {
+                //동적 프로젝션은 엔티티 자신으로
+                arguments[i] = domainType;
+            } else {
+                return null;
+            }
+        }
+        return arguments;
+    }
+
+    private List<WarmupCall> endpointCalls() {
+        if (properties.getEndpoints().isEmpty()
+                || !(applicationContext instanceof WebServerApplicationContext webContext)
+                || webContext.getWebServer() == null || webContext.getWebServer().getPort() <= 0) {
+            return List.of();
+        }
+        RestClient client = RestClient.create("http://localhost:" + webContext.getWebServer().getPort());
+        List<WarmupCall> calls = new ArrayList<>();
+        for (String endpoint : properties.getEndpoints()) {
+            //4xx/5xx 도 핸들러, 메시지 컨버터까지는 거친다
+            calls.add(new WarmupCall("GET " + endpoint, () -> client.get().uri(endpoint).retrieve()
+                    .onStatus(status -> true, (request, response) -> { })
+                    .toBodilessEntity()));
+        }
+        return calls;
+    }
+
+    private static void logSlowest(List<WarmupCall> calls, long[] firstPass, long[] lastPass) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < calls.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Long.compare(firstPass[b], firstPass[a]));
+        for (int i : order.subList(0, Math.min(10, order.size()))) {
+            log.debug("warm-up {}: first={} us last={} us", calls.get(i).name(),
+                    TimeUnit.NANOSECONDS.toMicros(firstPass[i]), TimeUnit.NANOSECONDS.toMicros(lastPass[i]));
+        }
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private record WarmupCall(String name, Runnable action) {
+
+        boolean run() {
+            try {
+                action.run();
+                return true;
+            } catch (RuntimeException e) {
+                log.debug("warm-up call {} failed: {}", name, e.toString());
+                return false;
+            }
+        }
+    }
+
+    public record WarmupReport(int calls, int failed, int connections, int iterations, long tookMillis,
+                               long firstPassNanos, long lastPassNanos) {
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+
+    //리포지토리 쿼리 메서드, 엔드포인트 전체를 몇 번 반복할지 (JIT 컴파일 임계값을 넘기기 위한 반복)
+    private int iterations = 20;
+
+    //Hikari 가 아닌 DataSource(라우팅 등)일 때 미리 열어 둘 커넥션 수, Hikari 면 minimumIdle
+    private int poolPrefill = 10;
+
+    //호출하지 않을 리포지토리 메서드 (예: MemberRepository.findUsernameList - 파라미터 없이 전체를 읽는 쿼리)
+    private List<String> excludes = new ArrayList<>();
+
+    //워밍업할 GET 엔드포인트 (path?query), 웹 서버가 떠 있을 때만 호출한다
+    private List<String> endpoints = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package study.datajpa.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메서드(또는 클래스의 모든 public 메서드)가 사용할 커넥션 풀과 동시 실행 한도를 정한다.
+ * 트랜잭션이 시작되기 전에 적용되어야 하므로 트랜잭션 경계(@Transactional 서비스, 리포지토리 메서드)에 붙인다.
+ * 같은 class 의 트랜잭션 안에서는 바깥 트랜잭션의 커넥션과 동시 실행 자리를 그대로 쓰고,
+ * 다른 class(지정 없는 트랜잭션은 OLTP)의 트랜잭션 안에서 호출하면 IllegalStateException 으로 거절한다.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+
+    WorkloadClass value();
+}
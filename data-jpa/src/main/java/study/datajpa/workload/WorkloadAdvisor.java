@@ -0,0 +1,58 @@
+package study.datajpa.workload;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link Workload} 가 붙은 메서드/클래스(리포지토리 인터페이스 포함)에 WorkloadInterceptor 를 건다.
+ * 트랜잭션 advisor 보다 먼저 실행되어야 트랜잭션이 커넥션을 얻기 전에 풀이 정해진다.
+ */
+public class WorkloadAdvisor extends AbstractPointcutAdvisor {
+
+    private final WorkloadInterceptor interceptor;
+
+    private final Pointcut pointcut = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return method.getDeclaringClass() != Object.class && workloadOf(method, targetClass) != null;
+        }
+    };
+
+    public WorkloadAdvisor(WorkloadInterceptor interceptor) {
+        this.interceptor = interceptor;
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return interceptor;
+    }
+
+    //메서드 > 구현 클래스 메서드 > 선언한 인터페이스/클래스 > 구현 클래스 순서
+    static WorkloadClass workloadOf(Method method, Class<?> targetClass) {
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(method, Workload.class);
+        if (workload == null && targetClass != null) {
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            workload = AnnotatedElementUtils.findMergedAnnotation(specific, Workload.class);
+        }
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Workload.class);
+        }
+        if (workload == null && targetClass != null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+        }
+        return workload == null ? null : workload.value();
+    }
+}
@@ -0,0 +1,58 @@
+package study.datajpa.workload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * workload class 별 동시 실행 한도. queueTimeout 안에 자리가 안 나면 RejectedExecutionException.
+ */
+public class WorkloadBulkheads {
+
+    private final Map<WorkloadClass, Semaphore> permits = new EnumMap<>(WorkloadClass.class);
+    private final Map<WorkloadClass, Long> queueTimeoutNanos = new EnumMap<>(WorkloadClass.class);
+    private final Map<WorkloadClass, Timer> waits = new EnumMap<>(WorkloadClass.class);
+    private final Map<WorkloadClass, Counter> rejections = new EnumMap<>(WorkloadClass.class);
+
+    public WorkloadBulkheads(WorkloadProperties properties, MeterRegistry registry) {
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            WorkloadProperties.Pool pool = properties.pool(workload);
+            Semaphore semaphore = new Semaphore(pool.getMaxConcurrency(), true);
+            String tag = workload.name().toLowerCase();
+            permits.put(workload, semaphore);
+            queueTimeoutNanos.put(workload, pool.getQueueTimeout().toNanos());
+            waits.put(workload, Timer.builder("workload.bulkhead.wait").tag("class", tag).register(registry));
+            rejections.put(workload, Counter.builder("workload.bulkhead.rejected").tag("class", tag).register(registry));
+            Gauge.builder("workload.bulkhead.active", semaphore, s -> pool.getMaxConcurrency() - s.availablePermits())
+                    .tag("class", tag)
+                    .register(registry);
+        }
+    }
+
+    public void acquire(WorkloadClass workload) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.get(workload).tryAcquire(queueTimeoutNanos.get(workload), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for " + workload + " bulkhead");
+        }
+        waits.get(workload).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejections.get(workload).increment();
+            throw new RejectedExecutionException(workload + " bulkhead is full");
+        }
+    }
+
+    public void release(WorkloadClass workload) {
+        permits.get(workload).release();
+    }
+}
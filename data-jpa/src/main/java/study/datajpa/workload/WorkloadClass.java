@@ -0,0 +1,10 @@
+package study.datajpa.workload;
+
+public enum WorkloadClass {
+    //지연에 민감한 단건 조회/저장 (기본값)
+    OLTP,
+    //목록, 리포트 등 오래 걸리는 읽기
+    REPORTING,
+    //배치, 대량 import/삭제/보관
+    BATCH
+}
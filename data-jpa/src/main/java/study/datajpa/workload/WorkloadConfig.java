@@ -0,0 +1,74 @@
+package study.datajpa.workload;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * workload class 별로 Hikari 풀을 따로 두는 bulkhead. 풀 메트릭은 hikaricp.* (pool=workload-oltp 등),
+ * 동시 실행 한도는 workload.bulkhead.* 로 나간다.
+ */
+@Configuration
+@EnableConfigurationProperties(WorkloadProperties.class)
+@Conditional(WorkloadConfig.WorkloadEnabledCondition.class)
+public class WorkloadConfig {
+
+    @Bean
+    public WorkloadRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, WorkloadProperties properties,
+                                                MeterRegistry meterRegistry) {
+        Map<WorkloadClass, HikariDataSource> pools = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            WorkloadProperties.Pool pool = properties.pool(workload);
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            dataSource.setPoolName("workload-" + workload.name().toLowerCase());
+            dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(Math.max(250, pool.getQueueTimeout().toMillis()));
+            dataSource.setMetricRegistry(meterRegistry);
+            pools.put(workload, dataSource);
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    @Bean
+    public WorkloadBulkheads workloadBulkheads(WorkloadProperties properties, MeterRegistry meterRegistry) {
+        return new WorkloadBulkheads(properties, meterRegistry);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public WorkloadAdvisor workloadAdvisor(WorkloadBulkheads workloadBulkheads) {
+        return new WorkloadAdvisor(new WorkloadInterceptor(workloadBulkheads));
+    }
+
+    //datajpa.workload.enabled. sharding 도 켜져 있으면 두 설정이 모두 dataSource 를 대체하므로 빈 등록 단계에서 바로 실패시킨다
+    static class WorkloadEnabledCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Environment environment = context.getEnvironment();
+            if (!environment.getProperty("datajpa.workload.enabled", Boolean.class, false)) {
+                return false;
+            }
+            if (environment.getProperty("datajpa.sharding.enabled", Boolean.class, false)) {
+                throw new IllegalStateException("datajpa.workload.enabled and datajpa.sharding.enabled cannot both be true: "
+                        + "both replace the dataSource bean");
+            }
+            return true;
+        }
+    }
+}
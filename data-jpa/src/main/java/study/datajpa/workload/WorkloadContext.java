@@ -0,0 +1,49 @@
+package study.datajpa.workload;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드의 workload class. 라우팅은 지정되지 않으면 OLTP 풀로 가지만,
+ * bulkhead 는 "지정 안 됨"과 OLTP 를 구분해야 하므로 {@link #assigned()} 로 따로 본다.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadClass current() {
+        WorkloadClass workload = CURRENT.get();
+        return workload == null ? WorkloadClass.OLTP : workload;
+    }
+
+    //@Workload 진입점이나 callAs 로 지정된 값, 없으면 null
+    public static WorkloadClass assigned() {
+        return CURRENT.get();
+    }
+
+    //다른 스레드에 작업을 넘길 때 호출한 쪽의 workload 를 이어받는다
+    public static <T> T callAs(WorkloadClass workload, Supplier<T> action) {
+        WorkloadClass previous = set(workload);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static WorkloadClass set(WorkloadClass workload) {
+        WorkloadClass previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(WorkloadClass previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.workload;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class WorkloadInterceptor implements MethodInterceptor {
+
+    private final WorkloadBulkheads bulkheads;
+
+    public WorkloadInterceptor(WorkloadBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        WorkloadClass workload = WorkloadAdvisor.workloadOf(invocation.getMethod(),
+                invocation.getThis() == null ? null : invocation.getThis().getClass());
+        //같은 class 의 중첩 호출은 바깥 진입점의 자리와 풀을 그대로 쓴다
+        if (workload == null || workload == WorkloadContext.assigned()) {
+            return invocation.proceed();
+        }
+        //트랜잭션이 이미 다른 풀의 커넥션을 잡고 있으면 풀을 바꿀 수 없다. 다른 class 로 조용히 실행하지 않고 거절한다
+        if (TransactionSynchronizationManager.isActualTransactionActive() && workload != WorkloadContext.current()) {
+            throw new IllegalStateException("@Workload(" + workload + ") " + invocation.getMethod().getName()
+                    + " called inside a transaction on the " + WorkloadContext.current()
+                    + " pool; put @Workload on the method that starts the transaction");
+        }
+        //가장 바깥 진입점(OLTP 포함)과 트랜잭션 밖에서 다른 class 로 들어갈 때 자리를 잡는다
+        bulkheads.acquire(workload);
+        WorkloadClass previous = WorkloadContext.set(workload);
+        try {
+            return invocation.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+            bulkheads.release(workload);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.workload;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.workload")
+public class WorkloadProperties {
+
+    //datajpa.sharding 과 함께 켜면 기동 시 실패한다 (둘 다 dataSource 를 대체)
+    private boolean enabled = false;
+
+    private Map<WorkloadClass, Pool> pools = new EnumMap<>(WorkloadClass.class);
+
+    public Pool pool(WorkloadClass workload) {
+        return pools.getOrDefault(workload, new Pool());
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        private int maximumPoolSize = 5;
+
+        //@Workload 진입점을 동시에 실행할 수 있는 수
+        private int maxConcurrency = 10;
+
+        //동시 실행 한도, 커넥션을 기다리는 최대 시간 (Hikari connectionTimeout 최소값은 250ms)
+        private Duration queueTimeout = Duration.ofSeconds(1);
+    }
+}
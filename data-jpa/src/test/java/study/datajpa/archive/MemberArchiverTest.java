@@ -0,0 +1,78 @@
+package study.datajpa.archive;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+//archive() 는 공용 DB 의 오래된 회원을 모두 옮기므로 테스트 트랜잭션 안에서 실행하고 롤백한다
+@SpringBootTest
+@Transactional
+class MemberArchiverTest {
+
+    @Autowired
+    MemberArchiver memberArchiver;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    public void archiveAndFallThrough() {
+        Team team = teamRepository.save(new Team("archiveTeam"));
+        Member old = memberRepository.save(new Member("archiveOld", 88, team));
+        Member fresh = memberRepository.save(new Member("archiveFresh", 88, team));
+        em.flush();
+        em.clear();
+        jdbcTemplate.update("update member set last_modified_date = ? where member_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(2)), old.getId());
+        long age88 = ageCount(88);
+
+        assertThat(memberArchiver.archive()).isGreaterThanOrEqualTo(1);
+        em.clear();
+
+        //hot 테이블에서 빠지고 집계에서도 빠진다
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where member_id = ?", Long.class, old.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member_archive where member_id = ?", Long.class, old.getId())).isEqualTo(1);
+        assertThat(ageCount(88)).isEqualTo(age88 - 1);
+
+        //id, username 조회는 아카이브까지 내려간다
+        Member archived = memberRepository.findById(old.getId()).orElseThrow();
+        assertThat(archived.isArchived()).isTrue();
+        assertThat(archived.getUsername()).isEqualTo("archiveOld");
+        assertThat(archived.getTeamId()).isEqualTo(team.getId());
+        assertThat(memberRepository.findOptionalByUsername("archiveOld")).get()
+                .extracting(Member::isArchived).isEqualTo(true);
+
+        assertThat(memberRepository.findById(fresh.getId()).orElseThrow().isArchived()).isFalse();
+        assertThat(memberRepository.findById(-1L)).isEmpty();
+
+        //아카이브 회원은 읽기 전용 - 저장하면 member 에 같은 id 의 행이 생기므로 거절한다
+        archived.setAge(89);
+        assertThatThrownBy(() -> memberRepository.save(archived)).hasMessageContaining("read-only");
+        assertThatThrownBy(() -> memberRepository.saveAll(List.of(archived))).hasMessageContaining("read-only");
+        em.flush();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where member_id = ?", Long.class, old.getId())).isZero();
+    }
+
+    private long ageCount(int age) {
+        return jdbcTemplate.queryForList("select member_count from age_histogram where age = ?", Long.class, age)
+                .stream().findFirst().orElse(0L);
+    }
+}
@@ -0,0 +1,100 @@
+package study.datajpa.columnar;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "datajpa.columnar-export.batch-size=2")
+class MemberArrowExporterTest {
+
+    @Autowired
+    MemberArrowExporter memberArrowExporter;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    public void exportStream() throws Exception {
+        Team team = teamRepository.save(new Team("arrowTeam"));
+        Member withTeam = memberRepository.save(new Member("arrowMember1", 31, team));
+        Member noTeam = memberRepository.save(new Member("arrowMember2", 32));
+        memberRepository.save(new Member("arrowMember3", 33, team));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = memberArrowExporter.export(out);
+
+        //batch-size=2 라서 여러 record batch 로 나뉜다
+        Map<Long, String> rowsById = new HashMap<>();
+        long read = 0;
+        int batches = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getSchema()).isEqualTo(MemberArrowExporter.SCHEMA);
+            while (reader.loadNextBatch()) {
+                batches++;
+                read += root.getRowCount();
+                IntVector encoded = (IntVector) root.getVector("team_name");
+                Dictionary dictionary = reader.getDictionaryVectors().get(encoded.getField().getDictionary().getId());
+                try (ValueVector decoded = DictionaryEncoder.decode(encoded, dictionary)) {
+                    BigIntVector memberId = (BigIntVector) root.getVector("member_id");
+                    VarCharVector username = (VarCharVector) root.getVector("username");
+                    IntVector age = (IntVector) root.getVector("age");
+                    for (int i = 0; i < root.getRowCount(); i++) {
+                        Object teamName = decoded.getObject(i);
+                        rowsById.put(memberId.get(i), username.getObject(i) + "/" + age.get(i) + "/" + teamName);
+                    }
+                }
+            }
+        }
+
+        assertThat(read).isEqualTo(rows);
+        assertThat(batches).isGreaterThan(1);
+        assertThat(rowsById.get(withTeam.getId())).isEqualTo("arrowMember1/31/arrowTeam");
+        assertThat(rowsById.get(noTeam.getId())).isEqualTo("arrowMember2/32/null");
+    }
+
+    @Test
+    public void exportFile() throws Exception {
+        memberRepository.save(new Member("arrowFile", 40));
+
+        Path file = memberArrowExporter.exportToFile();
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            long rows = 0;
+            while (reader.loadNextBatch()) {
+                rows += reader.getVectorSchemaRoot().getRowCount();
+            }
+            assertThat(rows).isGreaterThanOrEqualTo(1);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
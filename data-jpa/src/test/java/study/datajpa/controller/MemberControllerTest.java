@@ -0,0 +1,135 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//open-in-view 를 끄고 트랜잭션 밖 쿼리와 @FetchContract 예산 초과를 막은 상태에서 엔드포인트가 동작하는지 확인
+@SpringBootTest(properties = {
+        "spring.jpa.open-in-view=false",
+        "datajpa.osiv.detect-non-transactional-queries=true",
+        "datajpa.osiv.enforce-fetch-contracts=true"})
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping;
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void endpointsWithoutOpenInView() throws Exception {
+        Team team = teamRepository.save(new Team("teamA"));
+        Member member = memberRepository.save(new Member("osiv", 10, team));
+
+        mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("osiv"));
+        mockMvc.perform(get("/members2/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("osiv"));
+        mockMvc.perform(get("/members").param("size", "5"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/stats/ages"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/members/changes").param("token", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void everyEndpointDeclaresFetchContract() {
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            if (!handlerMethod.getBeanType().getPackageName().startsWith("study.datajpa")) {
+                continue;
+            }
+            assertThat(handlerMethod.hasMethodAnnotation(FetchContract.class))
+                    .as(handlerMethod.toString())
+                    .isTrue();
+        }
+    }
+
+    @Test
+    public void lazyLoadingBeyondFetchContractFails() throws Exception {
+        Member memberA = memberRepository.save(new Member("contractA", 10, teamRepository.save(new Team("contractTeamA"))));
+        Member memberB = memberRepository.save(new Member("contractB", 10, teamRepository.save(new Team("contractTeamB"))));
+
+        mockMvc.perform(get("/test/team-names").param("ids", String.valueOf(memberA.getId())))
+                .andExpect(status().isOk());
+        //회원마다 member, team 을 따로 읽으므로 (N+1) 두 명이면 예산 2 를 넘는다
+        assertThatThrownBy(() -> mockMvc.perform(get("/test/team-names")
+                .param("ids", String.valueOf(memberA.getId()), String.valueOf(memberB.getId()))))
+                .hasStackTraceContaining("fetch contract");
+    }
+
+    @Test
+    public void queryOutsideTransactionInRequestFails() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertThatThrownBy(() -> jdbcTemplate.queryForObject("select count(*) from member", Long.class))
+                .hasStackTraceContaining("query outside transaction");
+    }
+
+    @TestConfiguration
+    static class FetchContractTestConfig {
+
+        @Bean
+        TeamNameController teamNameController(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+            return new TeamNameController(memberRepository, new TransactionTemplate(transactionManager));
+        }
+    }
+
+    //팀 이름을 fetch join 없이 지연 로딩하는 엔드포인트
+    @RestController
+    static class TeamNameController {
+
+        private final MemberRepository memberRepository;
+        private final TransactionTemplate transactionTemplate;
+
+        TeamNameController(MemberRepository memberRepository, TransactionTemplate transactionTemplate) {
+            this.memberRepository = memberRepository;
+            this.transactionTemplate = transactionTemplate;
+        }
+
+        @FetchContract(value = "team", maxStatements = 2)
+        @GetMapping("/test/team-names")
+        public List<String> teamNames(@RequestParam("ids") List<Long> ids) {
+            return transactionTemplate.execute(status -> ids.stream()
+                    .map(id -> memberRepository.findById(id).orElseThrow().getTeam().getName())
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.csvimport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+//청크 2줄 -> 데이터 5줄이 3개 트랜잭션으로 나뉜다
+@SpringBootTest(properties = "datajpa.csv-import.chunk-size=2")
+class MemberCsvImporterTest {
+
+    @Autowired
+    MemberCsvImporter memberCsvImporter;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void importCsv() {
+        Team existing = teamRepository.save(new Team("csvTeamOld"));
+        String csv = """
+                username,age,team
+                csvUser1,20,csvTeamOld
+                ,21,csvTeamOld
+                csvUser2,22,csvTeamNew
+                csvUser3,abc,csvTeamNew
+                csvUser4,24,
+                """;
+
+        ImportResult result = memberCsvImporter.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.status()).isEqualTo("DONE");
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.errors()).extracting(ImportError::line).containsExactly(3, 5);
+        assertThat(result.errors().get(1).message()).contains("abc");
+
+        Member user1 = memberRepository.findOptionalByUsername("csvUser1").orElseThrow();
+        assertThat(user1.getTeamId()).isEqualTo(existing.getId());
+        assertThat(user1.getCreatedDate()).isNotNull();
+        assertThat(user1.getCreateBy()).isEqualTo("import-" + result.jobId());
+        Member user2 = memberRepository.findOptionalByUsername("csvUser2").orElseThrow();
+        assertThat(user2.getTeam().getName()).isEqualTo("csvTeamNew");
+        assertThat(memberRepository.findOptionalByUsername("csvUser4").orElseThrow().getTeam()).isNull();
+        assertThat(memberRepository.existsByUsername("csvUser4")).isTrue();
+
+        //집계도 같이 반영된다
+        assertThat(jdbcTemplate.queryForObject("select member_count from team_member_count where team_id = ?",
+                Long.class, existing.getId())).isEqualTo(1);
+
+        //끝난 job 을 다시 이어도 중복으로 들어가지 않는다
+        assertThat(memberCsvImporter.resume(result.jobId()).imported()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where create_by = ?",
+                Long.class, "import-" + result.jobId())).isEqualTo(3);
+
+        //끝난 job 의 스테이징은 바로 지우고, 오류 기록과 job 은 retention 이 지나면 지운다
+        assertThat(countByJob("member_import_staging", result.jobId())).isZero();
+        assertThat(countByJob("member_import_error", result.jobId())).isEqualTo(2);
+        jdbcTemplate.update("update member_import_job set created_date = ? where job_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(8)), result.jobId());
+        assertThat(memberCsvImporter.purgeExpiredJobs()).isGreaterThanOrEqualTo(1);
+        assertThat(countByJob("member_import_error", result.jobId())).isZero();
+        assertThatThrownBy(() -> memberCsvImporter.result(result.jobId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private long countByJob(String table, long jobId) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where job_id = ?", Long.class, jobId);
+    }
+}
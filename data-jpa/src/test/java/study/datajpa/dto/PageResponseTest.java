@@ -0,0 +1,43 @@
+package study.datajpa.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PageResponseTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void serialize() throws Exception {
+        Page<Member> page = memberPage(3);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(PageResponse.of(page, MemberDto::writeJson)));
+
+        assertThat(json.get("content")).hasSize(3);
+        assertThat(json.get("content").get(0).get("username").asText()).isEqualTo("member0");
+        assertThat(json.get("totalElements").asLong()).isEqualTo(30);
+        assertThat(json.get("totalPages").asInt()).isEqualTo(10);
+        //Pageable, Sort 는 내보내지 않는다
+        assertThat(json.has("pageable")).isFalse();
+        assertThat(json.has("sort")).isFalse();
+    }
+
+    private Page<Member> memberPage(int size) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            members.add(new Member("member" + i, i));
+        }
+        return new PageImpl<>(members, PageRequest.of(0, size, Sort.by("username")), size * 10L);
+    }
+}
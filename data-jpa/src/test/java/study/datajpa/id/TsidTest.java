@@ -0,0 +1,65 @@
+package study.datajpa.id;
+
+import org.junit.jupiter.api.Test;
+import study.datajpa.shard.ShardRouter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TsidTest {
+
+    @Test
+    public void monotonicAndUniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 50_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                long prev = 0;
+                boolean monotonic = true;
+                for (int i = 0; i < perThread; i++) {
+                    long id = Tsid.next();
+                    monotonic &= id > prev;
+                    prev = id;
+                    ids.add(id);
+                }
+                return monotonic;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        executor.shutdown();
+
+        assertThat(ids).hasSize(threads * perThread);
+        assertThat(Tsid.toString(1L)).hasSize(13);
+        assertThat(Tsid.toString(100L)).isLessThan(Tsid.toString(101L));
+    }
+
+    @Test
+    public void sparseTsidsSpreadAcrossShards() {
+        //팀은 드물게 만들어지므로 ms 마다 sequence 가 0 인 id 만 나온다 (하위 비트가 모두 같음)
+        int teams = 10_000;
+        long node = 7;
+        for (int shardCount : new int[]{2, 3, 4, 8}) {
+            ShardRouter router = new ShardRouter(shardCount);
+            int[] perShard = new int[shardCount];
+            for (long ms = 0; ms < teams; ms++) {
+                long teamId = (ms << (Tsid.NODE_BITS + Tsid.SEQUENCE_BITS)) | (node << Tsid.SEQUENCE_BITS);
+                perShard[router.shardFor(teamId)]++;
+            }
+            for (int count : perShard) {
+                assertThat(count).as("shards=%d", shardCount).isGreaterThan(teams / shardCount * 8 / 10);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.shard.ShardContext;
+import study.datajpa.shard.ShardRoutingDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+//threshold 0 -> 모든 쿼리가 느린 쿼리로 기록된다
+@SpringBootTest(properties = "datajpa.slow-query.threshold=0ms")
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryLogTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void logWithRepositoryMethodAndPlan(CapturedOutput output) throws Exception {
+        memberRepository.findByUsername1("nobody");
+
+        //로그는 비동기로 남는다
+        for (int i = 0; i < 50 && !output.getOut().contains("method=MemberRepository.findByUsername1"); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(output.getOut()).contains("method=MemberRepository.findByUsername1");
+        assertThat(output.getOut()).contains("params=[nobody]");
+        assertThat(output.getOut()).contains("plan=");
+    }
+
+    @Test
+    public void explainTargetFollowsCallingThreadRoutingKey() {
+        HikariDataSource shard0 = new HikariDataSource();
+        HikariDataSource shard1 = new HikariDataSource();
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(List.of(shard0, shard1));
+        routing.afterPropertiesSet();
+
+        //로그 스레드에는 샤드 키가 없으므로 요청 스레드에서 고른 대상이어야 한다
+        assertThat(ShardContext.callOn(1, () -> SlowQueryLog.hikariOf(routing))).isSameAs(shard1);
+        assertThat(SlowQueryLog.hikariOf(routing)).isSameAs(shard0);
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class JfrEventsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void recordWithShippedSettings() throws Exception {
+        List<RecordedEvent> events;
+        try (Reader reader = new InputStreamReader(new ClassPathResource("jfr/datajpa.jfc").getInputStream(), StandardCharsets.UTF_8);
+             Recording recording = new Recording(Configuration.create(reader))) {
+            recording.start();
+            memberRepository.save(new Member("jfrMember", 10));
+            memberRepository.findByUsernameAndAgeGreaterThan("jfrMember", 5);
+            recording.stop();
+
+            Path file = Files.createTempFile("datajpa", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("study.datajpa.RepositoryInvocation");
+            assertThat(event.getString("method")).isEqualTo("MemberRepository.findByUsernameAndAgeGreaterThan");
+            assertThat(event.getLong("rows")).isGreaterThanOrEqualTo(1);
+        });
+        //save 커밋 시 flush: insert 한 건
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("study.datajpa.Flush");
+            assertThat(event.getBoolean("auto")).isFalse();
+            assertThat(event.getInt("entities")).isGreaterThanOrEqualTo(1);
+            assertThat(event.getInt("statements")).isGreaterThanOrEqualTo(1);
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("study.datajpa.PersistenceContext");
+            assertThat(event.getBoolean("committed")).isTrue();
+            assertThat(event.getInt("entities")).isGreaterThanOrEqualTo(1);
+        });
+    }
+
+    @Test
+    public void eventsAreDisabledByDefault() {
+        assertThat(new RepositoryInvocationEvent().isEnabled()).isFalse();
+        assertThat(new FlushEvent().isEnabled()).isFalse();
+        assertThat(new PersistenceContextEvent().isEnabled()).isFalse();
+    }
+}
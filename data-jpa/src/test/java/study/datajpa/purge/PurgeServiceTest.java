@@ -0,0 +1,79 @@
+package study.datajpa.purge;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "datajpa.purge.chunk-size=10")
+class PurgeServiceTest {
+
+    @Autowired
+    PurgeService purgeService;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void purgeTeamWithMembers() {
+        Team team = teamRepository.save(new Team("purgeTeam"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("purge" + i, 30, team));
+        }
+        memberRepository.saveAll(members);
+
+        //청크 3번(10, 10, 5)으로 나눠 지운다
+        assertThat(purgeService.purgeTeam(team.getId())).isEqualTo(25);
+
+        assertThat(count("select count(*) from member where team_id = ?", team.getId())).isZero();
+        assertThat(count("select count(*) from team where team_id = ?", team.getId())).isZero();
+        assertThat(count("select count(*) from team_member_count where team_id = ?", team.getId())).isZero();
+    }
+
+    @Test
+    public void purgeEvictsOnlyDeletedEntities() {
+        Team team = teamRepository.save(new Team("purgeEvictTeam"));
+        Member gone = memberRepository.save(new Member("purgeGone", 31, team));
+        Member kept = memberRepository.save(new Member("purgeKept", 31, team));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Member goneInContext = em.find(Member.class, gone.getId());
+            Member keptInContext = em.find(Member.class, kept.getId());
+            Team teamInContext = em.find(Team.class, team.getId());
+            assertThat(teamInContext.getMembers()).hasSize(2);
+
+            purgeService.purgeMembers(List.of(gone.getId()));
+
+            assertThat(em.contains(goneInContext)).isFalse();
+            assertThat(em.contains(keptInContext)).isTrue();
+            assertThat(teamInContext.getMembers()).containsExactly(keptInContext);
+        });
+
+        assertThat(memberRepository.findById(gone.getId())).isEmpty();
+        assertThat(memberRepository.findById(kept.getId())).isPresent();
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
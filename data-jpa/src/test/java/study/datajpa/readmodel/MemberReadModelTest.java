@@ -0,0 +1,144 @@
+package study.datajpa.readmodel;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "datajpa.read-model.enabled=true")
+class MemberReadModelTest {
+
+    @Autowired
+    MemberReadModel memberReadModel;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    public void listenersKeepModelCurrent() {
+        memberReadModel.load();
+        int before = memberReadModel.countByAge(171);
+        Team team = teamRepository.save(new Team("readModelTeam"));
+
+        Member member = memberRepository.save(new Member("readModel1", 171, team));
+
+        assertThat(memberReadModel.countByAge(171)).isEqualTo(before + 1);
+        assertThat(memberReadModel.teamIdOf(member.getId())).isEqualTo(team.getId());
+        assertThat(memberJpaRepository.totalCount(171)).isEqualTo(before + 1);
+
+        //age 변경은 버킷을 옮긴다
+        member.setAge(172);
+        memberRepository.save(member);
+        assertThat(memberReadModel.ageOf(member.getId())).isEqualTo(172);
+        assertThat(memberReadModel.countByAge(171)).isEqualTo(before);
+
+        memberRepository.delete(member);
+        assertThat(memberReadModel.ageOf(member.getId())).isEqualTo(-1);
+        assertThat(memberReadModel.teamIdOf(member.getId())).isNull();
+    }
+
+    @Test
+    public void pageFromModelMatchesDatabase() {
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("readModelPage" + i, 173));
+        }
+        memberReadModel.load();
+
+        Page<Member> fromModel = memberRepository.findByAge(173, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id")));
+        //id 가 아닌 정렬은 DB 로 조회하고 count 만 모델에서
+        Page<Member> byUsername = memberRepository.findByAge(173, PageRequest.of(0, 2, Sort.by("username")));
+
+        long total = memberRepository.count(
+                (root, query, cb) -> cb.equal(root.get("age"), 173));
+        assertThat(fromModel.getTotalElements()).isEqualTo(total);
+        assertThat(byUsername.getTotalElements()).isEqualTo(total);
+        List<Long> ids = fromModel.getContent().stream().map(Member::getId).toList();
+        assertThat(ids).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(memberRepository.findSliceByAge(173, PageRequest.of(0, 2)).hasNext()).isTrue();
+    }
+
+    @Test
+    public void bulkAgePlusShiftsBuckets() {
+        Member member = memberRepository.save(new Member("readModelBulk", 190));
+        memberReadModel.load();
+        int at190 = memberReadModel.countByAge(190);
+        int at191 = memberReadModel.countByAge(191);
+
+        memberRepository.bulkAgePlus(190);
+
+        assertThat(memberReadModel.ageOf(member.getId())).isEqualTo(191);
+        assertThat(memberReadModel.countByAge(190)).isZero();
+        assertThat(memberReadModel.countByAge(191)).isEqualTo(at190);
+        assertThat(memberReadModel.countByAge(192)).isEqualTo(at191);
+    }
+
+    @Test
+    public void memberIdMapRehashesAndKeepsDeletedSlotsReadable() {
+        MemberIdMap map = new MemberIdMap(4);
+        for (long id = 1; id <= 10_000; id++) {
+            map.put(id, (int) (id % 100), id * 10);
+        }
+        for (long id = 1; id <= 10_000; id += 2) {
+            map.remove(id);
+        }
+
+        assertThat(map.size()).isEqualTo(5_000);
+        assertThat(map.contains(1)).isFalse();
+        assertThat(map.teamIdOf(2)).isEqualTo(20);
+        assertThat(map.ageOf(9_998)).isEqualTo(98);
+        assertThat(map.put(2, 50, MemberIdMap.NO_TEAM)).isEqualTo(2);
+        assertThat(map.teamIdOf(2)).isEqualTo(MemberIdMap.NO_TEAM);
+    }
+
+    @Test
+    public void ageIndexPagesInIdOrder() {
+        AgeIndex index = new AgeIndex(10);
+        index.add(3, 30);
+        index.add(3, 10);
+        index.add(3, 20);
+        index.add(11, 99);
+
+        assertThat(index.ids(3, 1, 5, false)).containsExactly(20, 30);
+        assertThat(index.ids(3, 0, 2, true)).containsExactly(30, 20);
+        assertThat(index.covers(11)).isFalse();
+
+        index.incrementAgesFrom(3);
+        assertThat(index.count(3)).isZero();
+        assertThat(index.count(4)).isEqualTo(3);
+    }
+
+    @Test
+    public void ageIndexKeepsMembersPastMaxAgeInOverflow() {
+        AgeIndex index = new AgeIndex(10);
+        index.add(9, 1);
+        index.add(10, 2);
+        index.add(12, 3);
+
+        //10 -> 11 은 overflow 로 합쳐지고 사라지지 않는다
+        index.incrementAgesFrom(9);
+        assertThat(index.count(10)).isEqualTo(1);
+        assertThat(index.covers(11)).isFalse();
+
+        //overflow 에 남아 있으므로 실제 age 로 옮길 수 있다
+        index.remove(11, 2);
+        index.add(5, 2);
+        index.remove(13, 3);
+        index.add(6, 3);
+        assertThat(index.ids(5, 0, 10, false)).containsExactly(2);
+        assertThat(index.ids(6, 0, 10, false)).containsExactly(3);
+    }
+}
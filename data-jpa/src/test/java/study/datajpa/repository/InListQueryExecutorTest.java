@@ -0,0 +1,65 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+import study.datajpa.shard.ShardContext;
+import study.datajpa.workload.WorkloadClass;
+import study.datajpa.workload.WorkloadContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.*;
+
+//트랜잭션 밖에서 호출해야 청크를 워커 스레드에서 병렬로 실행한다
+@SpringBootTest(properties = {"datajpa.in-list.chunk-size=4", "datajpa.in-list.parallelism=3"})
+class InListQueryExecutorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    InListQueryExecutor inListQueryExecutor;
+
+    @Test
+    public void parallelChunksOutsideTransaction() {
+        List<Member> saved = new ArrayList<>();
+        try {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                saved.add(memberRepository.save(new Member("parallelIn" + i, i)));
+                names.add("parallelMissing" + i);
+            }
+            names.add("parallelIn7");
+            names.add("parallelIn2");
+            names.add("parallelIn9");
+
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            List<Member> result = memberRepository.findByNames(names, true);
+
+            assertThat(result).extracting(Member::getUsername).containsExactly("parallelIn7", "parallelIn2", "parallelIn9");
+        } finally {
+            memberRepository.deleteAll(saved);
+        }
+    }
+
+    @Test
+    public void workersInheritShardAndWorkload() {
+        ConcurrentLinkedQueue<String> seen = new ConcurrentLinkedQueue<>();
+        List<Integer> keys = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        ShardContext.callOn(1, () -> WorkloadContext.callAs(WorkloadClass.REPORTING, () ->
+                inListQueryExecutor.execute(keys, (em, chunk) -> {
+                    seen.add(ShardContext.current() + "/" + WorkloadContext.current() + "/"
+                            + TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                    return chunk;
+                }, key -> key, false)));
+
+        //9개를 4개씩 -> 청크 3개, 모두 호출한 스레드의 샤드/workload 와 읽기 전용 트랜잭션에서 실행
+        assertThat(seen).hasSize(3).containsOnly("1/REPORTING/true");
+        assertThat(ShardContext.current()).isNull();
+    }
+}
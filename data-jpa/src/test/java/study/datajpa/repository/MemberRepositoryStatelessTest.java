@@ -0,0 +1,48 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+//stateless session은 별도 커넥션을 사용하므로 커밋된 데이터만 보인다 -> @Transactional 없이 테스트
+@SpringBootTest
+class MemberRepositoryStatelessTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    public void findAllMembersStateless(){
+        Team team = teamRepository.save(new Team("statelessTeam"));
+        memberRepository.save(new Member("statelessA", 10, team));
+        memberRepository.save(new Member("statelessB", 20, team));
+
+        List<Member> members = memberRepository.findAllMembersStateless();
+
+        assertThat(members).extracting(Member::getUsername).contains("statelessA", "statelessB");
+        //fetch join으로 가져왔기 때문에 세션이 닫혀도 team 접근 가능
+        Member memberA = members.stream().filter(m -> m.getUsername().equals("statelessA")).findFirst().get();
+        assertThat(memberA.getTeam().getName()).isEqualTo("statelessTeam");
+    }
+
+    @Test
+    public void streamMembersStateless(){
+        memberRepository.save(new Member("streamA", 10));
+        memberRepository.save(new Member("streamB", 20));
+
+        List<String> usernames = new ArrayList<>();
+        memberRepository.streamMembersStateless(m -> usernames.add(m.getUsername()));
+
+        assertThat(usernames).contains("streamA", "streamB");
+        assertThat(memberRepository.findUsernameListStateless()).contains("streamA", "streamB");
+    }
+}
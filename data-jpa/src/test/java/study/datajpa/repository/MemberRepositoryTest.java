@@ -14,6 +14,8 @@ import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -150,6 +152,26 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findByNamesInChunks(){
+        memberRepository.save(new Member("chunkA",10));
+        memberRepository.save(new Member("chunkB",20));
+        memberRepository.save(new Member("chunkC",30));
+
+        //chunk-size(512) 보다 많은 파라미터 -> 여러 쿼리로 나눠서 실행
+        List<String> names = new ArrayList<>();
+        names.add("chunkC");
+        for (int i = 0; i < 1200; i++) {
+            names.add("missing" + i);
+        }
+        names.add("chunkA");
+        names.add("chunkB");
+
+        List<Member> result = memberRepository.findByNames(names, true);
+
+        assertThat(result).extracting(Member::getUsername).containsExactly("chunkC", "chunkA", "chunkB");
+    }
+
     @Test
     public void returnType(){
         Member member1 = new Member("memberA",10);
@@ -254,6 +276,39 @@ class MemberRepositoryTest {
         //assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    public void findChangedSince(){
+        memberRepository.save(new Member("changed1",10));
+        memberRepository.save(new Member("changed2",10));
+        memberRepository.save(new Member("changed3",10));
+        em.flush();
+
+        LocalDateTime since = LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime until = LocalDateTime.now();
+        List<Member> first = memberRepository.findChangedSince(since, 0L, until, PageRequest.of(0, 2));
+        Member last = first.get(first.size() - 1);
+        List<Member> second = memberRepository.findChangedSince(last.getLastModifiedDate(), last.getId(), until, PageRequest.of(0, 2));
+
+        assertThat(first).hasSize(2);
+        //다음 페이지는 마지막 워터마크 이후부터 시작
+        Member next = second.get(0);
+        assertThat(next.getLastModifiedDate().isAfter(last.getLastModifiedDate())
+                || (next.getLastModifiedDate().isEqual(last.getLastModifiedDate()) && next.getId() > last.getId())).isTrue();
+    }
+
+    @Test
+    public void bulkAgePlusTouchesLastModifiedDate(){
+        Member member = memberRepository.save(new Member("bulkTouched", 50));
+        em.flush();
+        LocalDateTime before = member.getLastModifiedDate();
+
+        memberRepository.bulkAgePlus(50, before.plusSeconds(10));
+
+        Member findMember = memberRepository.findById(member.getId()).get();
+        assertThat(findMember.getAge()).isEqualTo(51);
+        assertThat(findMember.getLastModifiedDate()).isAfter(before);
+    }
+
     @Test
     public void findMemberLazy(){
 
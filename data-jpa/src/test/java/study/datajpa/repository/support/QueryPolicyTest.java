@@ -0,0 +1,77 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "datajpa.query-policy.enabled=true",
+        "datajpa.query-policy.rules[0].pattern=MemberRepository.findMemberCustom",
+        "datajpa.query-policy.rules[0].max-rows=2",
+        "datajpa.query-policy.rules[1].pattern=MemberRepository.findById",
+        "datajpa.query-policy.rules[1].read-only=true"})
+@Transactional
+class QueryPolicyTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    QueryPolicies queryPolicies;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void resolveFirstMatchingRuleOverDefaults() {
+        QueryPolicy policy = queryPolicies.resolve("MemberRepository.findMemberCustom");
+
+        assertThat(policy.maxRows()).isEqualTo(2);
+        assertThat(policy.readOnly()).isFalse();
+        assertThat(queryPolicies.resolve("TeamRepository.findById").maxRows()).isNull();
+    }
+
+    @Test
+    public void maxRowsOverflowFailsAndCountsViolation() {
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("policy" + i, 10));
+        }
+        em.flush();
+
+        //잘린 2건을 돌려주지 않고 실패한다
+        assertThatThrownBy(() -> memberRepository.findMemberCustom())
+                .isInstanceOf(QueryMaxRowsExceededException.class);
+        assertThat(violations("MemberRepository.findMemberCustom", "max-rows")).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void readOnlyEntitiesAreNotFlushed() {
+        Member member = memberRepository.save(new Member("policyReadOnly", 10));
+        em.flush();
+        em.clear();
+
+        Member found = memberRepository.findById(member.getId()).orElseThrow();
+        found.setUsername("changed");
+        em.flush();
+
+        assertThat(jdbcTemplate.queryForObject("select username from member where member_id = ?",
+                String.class, member.getId())).isEqualTo("policyReadOnly");
+    }
+
+    private double violations(String method, String type) {
+        Counter counter = meterRegistry.find("repository.query.policy.violations")
+                .tag("method", method).tag("type", type).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
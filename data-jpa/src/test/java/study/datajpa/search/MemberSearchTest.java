@@ -0,0 +1,85 @@
+package study.datajpa.search;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+//색인은 커밋 후에 반영되므로 @Transactional 없이 테스트 (index-dir 를 주지 않으면 컨텍스트마다 임시 디렉터리)
+@SpringBootTest
+class MemberSearchTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    MemberMassIndexer memberMassIndexer;
+
+    @Test
+    public void search(){
+        Team team = teamRepository.save(new Team("searchTeam"));
+        memberRepository.save(new Member("searchMemberA", 10, team));
+        memberRepository.save(new Member("searchMemberB", 20));
+
+        List<Member> prefix = memberRepository.searchMembers("searchmem", SearchMode.PREFIX, 10);
+        assertThat(prefix).extracting(Member::getUsername).contains("searchMemberA", "searchMemberB");
+
+        List<Member> fuzzy = memberRepository.searchMembers("serchMemberA", SearchMode.FUZZY, 10);
+        assertThat(fuzzy).extracting(Member::getUsername).contains("searchMemberA");
+
+        List<Member> contains = memberRepository.searchMembers("MemberB", SearchMode.CONTAINS, 10);
+        assertThat(contains).extracting(Member::getUsername).contains("searchMemberB");
+
+        //팀 이름으로도 검색
+        List<Member> byTeam = memberRepository.searchMembers("searchTeam", SearchMode.PREFIX, 10);
+        assertThat(byTeam).extracting(Member::getUsername).contains("searchMemberA");
+    }
+
+    @Test
+    public void rebuild(){
+        memberRepository.save(new Member("rebuildMember", 10));
+
+        long count = memberMassIndexer.rebuild();
+
+        assertThat(count).isGreaterThanOrEqualTo(1);
+        assertThat(memberRepository.searchMembers("rebuild", SearchMode.PREFIX, 10))
+                .extracting(Member::getUsername).contains("rebuildMember");
+    }
+
+    @Test
+    public void commitPending() throws Exception {
+        try (MemberSearchIndex index = new MemberSearchIndex(Files.createTempDirectory("member-index-test-"), true)) {
+            index.index(1L, "durableMember", null, null);
+            //검색에는 바로 보이지만 아직 디스크(커밋 지점)에는 없다
+            assertThat(index.search("durable", SearchMode.PREFIX, 10)).containsExactly(1L);
+            assertThat(committedDocs(index)).isZero();
+
+            index.commitPending();
+
+            assertThat(committedDocs(index)).isEqualTo(1);
+        }
+    }
+
+    private static int committedDocs(MemberSearchIndex index) throws Exception {
+        //writer 가 열려 있어도 마지막 커밋 지점은 별도 reader 로 읽을 수 있다
+        try (FSDirectory directory = FSDirectory.open(index.getPath())) {
+            if (!DirectoryReader.indexExists(directory)) {
+                return 0;
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                return reader.numDocs();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+//H2 1.4 는 SKIP LOCKED 를 지원하지 않으므로 여기서는 lock-timeout 으로 기다리는 대체 경로만 검증된다.
+//SKIP LOCKED 경로(잠긴 행을 건너뛰기)는 지원하는 DB(PostgreSQL, MySQL 8 등)에서 따로 확인해야 한다
+@SpringBootTest
+class MemberClaimWorkerTest {
+
+    static final int PENDING_AGE = 500;
+    static final int DONE_AGE = 501;
+
+    @Autowired
+    MemberClaimWorker memberClaimWorker;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    public void workersDrainBacklogWithoutDoubleProcessing() throws Exception {
+        List<Member> backlog = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            backlog.add(new Member("claim" + i, PENDING_AGE));
+        }
+        memberRepository.saveAll(backlog);
+
+        Specification<Member> pending = (root, query, builder) -> builder.equal(root.get("age"), PENDING_AGE);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            //처리된 회원은 age 가 바뀌어 spec 에서 빠진다. 두 번 처리되면 age 가 DONE_AGE 를 넘는다
+            results.add(workers.submit(() -> memberClaimWorker.run(pending, 10,
+                    member -> member.setAge(member.getAge() == PENDING_AGE ? DONE_AGE : DONE_AGE + 1),
+                    running::get)));
+        }
+
+        for (int i = 0; i < 300 && remaining(PENDING_AGE) > 0; i++) {
+            Thread.sleep(100);
+        }
+        running.set(false);
+
+        long processed = 0;
+        for (Future<Long> result : results) {
+            processed += result.get();
+        }
+        workers.shutdown();
+
+        assertThat(remaining(PENDING_AGE)).isZero();
+        assertThat(remaining(DONE_AGE)).isEqualTo(100);
+        assertThat(processed).isEqualTo(100);
+    }
+
+    @Test
+    public void emptyClaim() {
+        Specification<Member> nobody = (root, query, builder) -> builder.equal(root.get("username"), "nobody");
+
+        assertThat(memberClaimWorker.claimAndProcess(nobody, 10, member -> {})).isZero();
+    }
+
+    private long remaining(int age) {
+        return memberRepository.findByAge(age, PageRequest.of(0, 1)).getTotalElements();
+    }
+}
@@ -0,0 +1,80 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class MemberWriteCoalescerTest {
+
+    @Autowired
+    MemberWriteCoalescer memberWriteCoalescer;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void concurrentSave() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> memberWriteCoalescer.submit(new Member("coalesce" + n, n)), clients).thenCompose(f -> f));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (CompletableFuture<Long> future : futures) {
+            ids.add(future.get());
+        }
+        clients.shutdown();
+
+        assertThat(ids).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(memberRepository.findAllById(ids)).hasSize(200);
+    }
+
+    @Test
+    public void errorInBatchFailsFutures() throws Exception {
+        MemberRepository failing = mock(MemberRepository.class);
+        when(failing.save(any())).thenThrow(new StackOverflowError("boom"));
+        MemberWriteCoalescer coalescer = new MemberWriteCoalescer(failing, transactionManager, new MemberWriteProperties());
+        coalescer.start();
+        try {
+            CompletableFuture<Long> first = coalescer.submit(new Member("coalesceError1", 1));
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+
+            //writer 는 살아서 다음 묶음을 계속 처리한다
+            CompletableFuture<Long> second = coalescer.submit(new Member("coalesceError2", 2));
+            assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        } finally {
+            coalescer.stop();
+        }
+    }
+
+    @Test
+    public void rejectAfterStop() throws Exception {
+        MemberWriteCoalescer coalescer = new MemberWriteCoalescer(memberRepository, transactionManager, new MemberWriteProperties());
+        coalescer.start();
+        coalescer.stop();
+
+        assertThatThrownBy(() -> coalescer.submit(new Member("coalesceStopped", 1)))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+}
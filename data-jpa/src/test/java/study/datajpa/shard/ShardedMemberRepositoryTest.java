@@ -0,0 +1,97 @@
+package study.datajpa.shard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+//로컬 H2 메모리 DB 3개를 샤드로 사용
+@SpringBootTest(properties = {
+        "datajpa.sharding.enabled=true",
+        "datajpa.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "datajpa.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "datajpa.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"
+})
+class ShardedMemberRepositoryTest {
+
+    @Autowired
+    ShardedMemberRepository shardedMemberRepository;
+    @Autowired
+    ShardRouter shardRouter;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void routeAndScatterGather(){
+        Team teamA = shardedMemberRepository.saveTeam(new Team("teamA"));
+        Team teamB = shardedMemberRepository.saveTeam(new Team("teamB"));
+        Team teamC = shardedMemberRepository.saveTeam(new Team("teamC"));
+
+        Member member1 = save("member1", 10, teamA);
+        assertThat(shardRouter.shardFor(member1)).isEqualTo(shardRouter.shardFor(teamA.getId()));
+        save("member2", 10, teamB);
+        save("member3", 20, teamC);
+        save("member4", 10, teamC);
+        save("member5", 10, teamA);
+
+        //회원 id 는 샤드별 member_seq 구간에서 나오므로 샤드 사이에서 겹치지 않는다
+        for (Member member : shardedMemberRepository.findAll(PageRequest.of(0, 10)).getContent()) {
+            int shard = shardRouter.shardFor(member);
+            assertThat(member.getId()).isGreaterThanOrEqualTo(shardRouter.firstMemberId(shard))
+                    .isLessThan(shardRouter.firstMemberId(shard + 1));
+        }
+
+        //단건 조회는 소유 샤드에서 바로 찾는다
+        Member findMember = shardedMemberRepository.findById(teamA.getId(), member1.getId()).get();
+        assertThat(findMember.getUsername()).isEqualTo("member1");
+        assertThat(shardedMemberRepository.count()).isEqualTo(5);
+
+        Page<Member> page = shardedMemberRepository.findByAge(10, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "username")));
+        assertThat(page.getContent()).extracting(Member::getUsername).containsExactly("member2", "member1");
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+
+        Page<Member> all = shardedMemberRepository.findAll(PageRequest.of(0, 3, Sort.by("username")));
+        assertThat(all.getContent()).extracting(Member::getUsername).containsExactly("member1", "member2", "member3");
+
+        List<Member> byNames = shardedMemberRepository.findByNames(Arrays.asList("member3", "member5"));
+        assertThat(byNames).extracting(Member::getUsername).containsExactlyInAnyOrder("member3", "member5");
+    }
+
+    @Test
+    public void teamCopyIsIdempotent(){
+        Team team = shardedMemberRepository.saveTeam(new Team("teamCopy"));
+        team.setName("teamCopy2");
+        shardedMemberRepository.saveTeam(team);
+        shardedMemberRepository.syncTeams();
+
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            List<String> names = ShardContext.callOn(shard, () -> jdbcTemplate.queryForList(
+                    "select name from team where team_id = ?", String.class, team.getId()));
+            assertThat(names).containsExactly("teamCopy2");
+        }
+    }
+
+    @Test
+    public void rejectDeepScatterPage(){
+        assertThatThrownBy(() -> shardedMemberRepository.findAll(PageRequest.of(10_000, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("max-scatter-window");
+    }
+
+    private Member save(String username, int age, Team team) {
+        Member member = new Member(username, age);
+        member.setTeam(team);
+        return shardedMemberRepository.save(member);
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.sortpolicy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import study.datajpa.entity.Member;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SortPolicyTest {
+
+    @Autowired
+    SortPolicy sortPolicy;
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void allowedPropertiesAreBackedByIndexes() {
+        assertThat(sortPolicy.allowedProperties(Member.class))
+                .containsExactlyInAnyOrder("id", "username", "age", "lastModifiedDate");
+    }
+
+    @Test
+    public void appendsIdTieBreakerInLastDirection() {
+        Pageable pageable = sortPolicy.apply(Member.class, PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "username")));
+
+        assertThat(pageable.getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "username", "id"));
+        assertThat(sortPolicy.apply(Member.class, PageRequest.of(0, 10)).getSort()).isEqualTo(Sort.by("id"));
+        //id 뒤의 정렬은 버린다
+        assertThat(sortPolicy.apply(Member.class, PageRequest.of(0, 10, Sort.by("id", "age"))).getSort())
+                .isEqualTo(Sort.by("id"));
+    }
+
+    @Test
+    public void rejectsUnindexedSort() throws Exception {
+        assertThatThrownBy(() -> sortPolicy.apply(Member.class, PageRequest.of(0, 10, Sort.by("lastModifiedBy"))))
+                .isInstanceOf(InvalidSortException.class);
+        assertThatThrownBy(() -> sortPolicy.apply(Member.class,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.asc("username").ignoreCase()))))
+                .isInstanceOf(InvalidSortException.class);
+
+        mockMvc.perform(get("/members").param("sort", "lastModifiedBy"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members").param("sort", "username,desc").param("size", "5"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,96 @@
+package study.datajpa.stats;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberAggregatesTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    AggregateReconciler aggregateReconciler;
+
+    @Test
+    public void incrementalUpdate(){
+        Team teamA = new Team("statsTeamA");
+        Team teamB = new Team("statsTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        long age77 = ageCount(77);
+        long age78 = ageCount(78);
+
+        Member member1 = new Member("stats1", 77, teamA);
+        Member member2 = new Member("stats2", 77, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.flush();
+
+        assertThat(teamCount(teamA.getId())).isEqualTo(2);
+        assertThat(ageCount(77)).isEqualTo(age77 + 2);
+
+        //나이, 팀 변경 -> 이전 값은 -1, 새 값은 +1
+        member1.setAge(78);
+        member1.changeTeam(teamB);
+        em.flush();
+        em.clear();
+
+        assertThat(teamCount(teamA.getId())).isEqualTo(1);
+        assertThat(teamCount(teamB.getId())).isEqualTo(1);
+        assertThat(ageCount(77)).isEqualTo(age77 + 1);
+        assertThat(ageCount(78)).isEqualTo(age78 + 1);
+
+        memberRepository.delete(memberRepository.findById(member2.getId()).get());
+        em.flush();
+
+        assertThat(teamCount(teamA.getId())).isEqualTo(0);
+        assertThat(aggregateReconciler.reconcile()).isEqualTo(0);
+    }
+
+    @Test
+    public void bulkAgePlus(){
+        em.persist(new Member("statsBulk", 90));
+        em.flush();
+        long age90 = ageCount(90);
+        long age91 = ageCount(91);
+
+        memberRepository.bulkAgePlus(90);
+
+        assertThat(ageCount(90)).isEqualTo(0);
+        assertThat(ageCount(91)).isEqualTo(age90 + age91);
+    }
+
+    @Test
+    public void reconcileDrift(){
+        em.persist(new Member("statsDrift", 95));
+        em.flush();
+        jdbcTemplate.update("update age_histogram set member_count = member_count + 10 where age = 95");
+
+        assertThat(aggregateReconciler.reconcile()).isGreaterThanOrEqualTo(1);
+        assertThat(ageCount(95)).isEqualTo(jdbcTemplate.queryForObject("select count(*) from member where age = 95", Long.class));
+    }
+
+    private long teamCount(Long teamId) {
+        return jdbcTemplate.queryForList("select member_count from team_member_count where team_id = ?", Long.class, teamId)
+                .stream().findFirst().orElse(0L);
+    }
+
+    private long ageCount(int age) {
+        return jdbcTemplate.queryForList("select member_count from age_histogram where age = ?", Long.class, age)
+                .stream().findFirst().orElse(0L);
+    }
+}
@@ -0,0 +1,110 @@
+package study.datajpa.username;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class UsernameFilterTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    UsernameFilter usernameFilter;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    public void existsByUsername() {
+        memberRepository.save(new Member("bloomUser", 10));
+        double negatives = negativeChecks();
+        double maybes = maybeChecks();
+        double falsePositives = falsePositives();
+
+        assertThat(memberRepository.existsByUsername("bloomUser")).isTrue();
+        assertThat(memberRepository.existsByUsername("bloomNobody")).isFalse();
+        assertThat(memberRepository.findOptionalByUsername("bloomNobody")).isEmpty();
+
+        //세 번 모두 필터가 답했고, 있는 bloomUser 를 뺀 maybe 만 false positive 로 집계된다
+        assertThat(negativeChecks() - negatives + maybeChecks() - maybes).isEqualTo(3);
+        assertThat(falsePositives() - falsePositives).isEqualTo(maybeChecks() - maybes - 1);
+        assertThat(meterRegistry.get("member.username.filter.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    public void insertBypassingThisJvm() {
+        //다른 인스턴스가 넣은 것처럼 엔티티 리스너를 거치지 않고 insert
+        jdbcTemplate.update("insert into member (member_id, username, age) values (next value for member_seq, ?, ?)",
+                "bloomOtherNode", 10);
+
+        try {
+            //쓰기 트랜잭션 안의 확인은 필터가 모르는 username 도 DB 에서 찾는다 (중복 가입 방지)
+            assertThat(transactionTemplate.execute(status -> memberRepository.existsByUsername("bloomOtherNode"))).isTrue();
+            assertThat(transactionTemplate.execute(status -> memberRepository.findMemberByUsername("bloomOtherNode"))).isNotNull();
+
+            //reload 후에는 트랜잭션 밖의 빠른 경로에서도 보인다
+            usernameFilter.load();
+            assertThat(memberRepository.existsByUsername("bloomOtherNode")).isTrue();
+            assertThat(memberRepository.findMemberByUsername("bloomOtherNode").getUsername()).isEqualTo("bloomOtherNode");
+            assertThat(memberRepository.findMemberByUsername("bloomNobody")).isNull();
+        } finally {
+            //집계 리스너도 거치지 않은 행이므로 남기지 않는다
+            jdbcTemplate.update("delete from member where username = ?", "bloomOtherNode");
+        }
+    }
+
+    @Test
+    public void forcedDatabaseCheckIsNotFalsePositive() {
+        double maybes = maybeChecks();
+        double falsePositives = falsePositives();
+
+        //single-writer 가 아니면 쓰기 트랜잭션 안에서는 필터가 없다고 해도 DB 로 확인한다
+        assertThat(transactionTemplate.execute(status -> memberRepository.existsByUsername("bloomForced"))).isFalse();
+
+        //필터가 maybe 라고 답한 경우에만 false positive 다
+        assertThat(falsePositives() - falsePositives).isEqualTo(maybeChecks() - maybes);
+    }
+
+    @Test
+    public void falsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("member" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        System.out.println("fpp observed = " + falsePositives / 10_000.0 + ", expected = " + filter.expectedFpp()
+                + ", bytes = " + filter.memoryBytes());
+        assertThat(falsePositives / 10_000.0).isLessThan(0.03);
+    }
+
+    private double negativeChecks() {
+        return meterRegistry.get("member.username.filter.checks").tag("result", "negative").functionCounter().count();
+    }
+
+    private double maybeChecks() {
+        return meterRegistry.get("member.username.filter.checks").tag("result", "maybe").functionCounter().count();
+    }
+
+    private double falsePositives() {
+        return meterRegistry.get("member.username.filter.false.positives").functionCounter().count();
+    }
+}
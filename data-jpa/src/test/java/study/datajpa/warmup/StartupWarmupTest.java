@@ -0,0 +1,34 @@
+package study.datajpa.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+//기본 설정에서는 꺼져 있고 warmup 프로필로 켠다
+@SpringBootTest(properties = "datajpa.warmup.iterations=3")
+@ActiveProfiles("warmup")
+class StartupWarmupTest {
+
+    @Autowired
+    StartupWarmup startupWarmup;
+    @Autowired
+    ApplicationAvailability applicationAvailability;
+
+    @Test
+    public void warmUpRunsBeforeReadiness() {
+        StartupWarmup.WarmupReport report = startupWarmup.report();
+
+        assertThat(report).isNotNull();
+        assertThat(report.calls()).isGreaterThan(10);
+        assertThat(report.iterations()).isEqualTo(3);
+        assertThat(report.connections()).isGreaterThanOrEqualTo(1);
+        //안전한 파라미터라 대부분 성공한다 (primitive 반환 네이티브 쿼리 등은 결과가 없으면 실패)
+        assertThat(report.failed()).isLessThan(report.calls() / 2);
+        assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+}
@@ -0,0 +1,101 @@
+package study.datajpa.workload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.archive.MemberArchiver;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberQueryService;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "datajpa.workload.enabled=true",
+        "datajpa.workload.pools.oltp.max-concurrency=1",
+        "datajpa.workload.pools.oltp.queue-timeout=100ms",
+        "datajpa.workload.pools.batch.max-concurrency=1",
+        "datajpa.workload.pools.batch.queue-timeout=100ms"})
+class WorkloadTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberArchiver memberArchiver;
+    @Autowired
+    WorkloadBulkheads workloadBulkheads;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    MemberQueryService memberQueryService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void reportingQueryUsesReportingPool() {
+        memberRepository.save(new Member("workloadReport", 10));
+        long before = connectionUsages("workload-reporting");
+
+        memberRepository.findMemberCustom();
+
+        assertThat(connectionUsages("workload-reporting")).isGreaterThan(before);
+        assertThat(WorkloadContext.current()).isEqualTo(WorkloadClass.OLTP);
+        assertThat(WorkloadContext.assigned()).isNull();
+    }
+
+    //지정 안 됨과 OLTP 를 구분하므로 OLTP 진입점도 한도를 받는다
+    @Test
+    public void fullBulkheadRejectsOltp() {
+        workloadBulkheads.acquire(WorkloadClass.OLTP);
+        try {
+            assertThatThrownBy(() -> memberQueryService.findPage(PageRequest.of(0, 1)))
+                    .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            workloadBulkheads.release(WorkloadClass.OLTP);
+        }
+        assertThat(memberQueryService.findPage(PageRequest.of(0, 1))).isNotNull();
+    }
+
+    //OLTP 트랜잭션의 커넥션으로 REPORTING 쿼리를 돌리지 않고 거절한다
+    @Test
+    public void reportingInsideOltpTransactionFails() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> memberRepository.findMemberCustom()))
+                .hasStackTraceContaining("called inside a transaction on the OLTP pool");
+        assertThat(WorkloadContext.assigned()).isNull();
+    }
+
+    @Test
+    public void workloadWithShardingFailsAtStartup() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(WorkloadConfig.class)
+                .withPropertyValues("datajpa.workload.enabled=true", "datajpa.sharding.enabled=true")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().hasStackTraceContaining("cannot both be true"));
+    }
+
+    @Test
+    public void fullBulkheadRejectsBatch() {
+        workloadBulkheads.acquire(WorkloadClass.BATCH);
+        try {
+            assertThatThrownBy(() -> memberArchiver.archive()).isInstanceOf(RejectedExecutionException.class);
+            assertThat(meterRegistry.get("workload.bulkhead.rejected").tag("class", "batch").counter().count())
+                    .isGreaterThanOrEqualTo(1);
+        } finally {
+            workloadBulkheads.release(WorkloadClass.BATCH);
+        }
+    }
+
+    private long connectionUsages(String pool) {
+        var timer = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}